@@ -0,0 +1,64 @@
+package com.bookofthedeadnotifier;
+
+import net.runelite.api.EquipmentInventorySlot;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.ItemID;
+import net.runelite.api.Varbits;
+
+/**
+ * Realistic gear for the benchmarks: a full 28-slot inventory with mixed
+ * combination runes, optional rune pouch and optional fire staff.
+ */
+final class BenchmarkFixtures
+{
+	static final int ARCEUUS_SPELLBOOK = 3;
+
+	private BenchmarkFixtures()
+	{
+	}
+
+	static Item[] fullInventory(boolean runePouch)
+	{
+		return ContainerBuilder.inventory()
+			.add(runePouch ? ItemID.DIVINE_RUNE_POUCH : ItemID.SHARK)
+			.add(ItemID.FIRE_RUNE, 500)
+			.add(ItemID.LAVA_RUNE, 200)
+			.add(ItemID.SMOKE_RUNE, 150)
+			.add(ItemID.STEAM_RUNE, 100)
+			.add(ItemID.BLOOD_RUNE, 300)
+			.add(ItemID.COSMIC_RUNE, 80)
+			.add(ItemID.AETHER_RUNE, 40)
+			.add(ItemID.DEATH_RUNE, 250)
+			.fill(ItemID.SHARK, 1)
+			.build();
+	}
+
+	static Item[] equipment(boolean fireStaff)
+	{
+		return ContainerBuilder.equipment()
+			.equip(EquipmentInventorySlot.WEAPON, fireStaff ? ItemID.FIRE_BATTLESTAFF : ItemID.KODAI_WAND)
+			.build();
+	}
+
+	/**
+	 * Arceuus spellbook and enough runes, but no Book of the Dead, so every
+	 * evaluation ends with an active reminder.
+	 */
+	static PluginHarness warningHarness(BookOfTheDeadNotifierConfig config, boolean runePouch, boolean fireStaff)
+	{
+		PluginHarness harness = new PluginHarness(config);
+		harness.setVarbit(Varbits.SPELLBOOK, ARCEUUS_SPELLBOOK);
+		if (runePouch)
+		{
+			harness.setRunePouch(RunePouchBuilder.pouch()
+				.add(ItemID.BLOOD_RUNE, 1000)
+				.add(ItemID.COSMIC_RUNE, 500)
+				.add(ItemID.LAVA_RUNE, 2000));
+		}
+		harness.setContainer(InventoryID.INVENTORY, fullInventory(runePouch));
+		harness.setContainer(InventoryID.EQUIPMENT, equipment(fireStaff));
+		harness.tick();
+		return harness;
+	}
+}
@@ -0,0 +1,156 @@
+package com.bookofthedeadnotifier;
+
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.ItemID;
+import net.runelite.api.Varbits;
+import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.VarbitChanged;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event handling followed by the tick evaluation it schedules, plus the
+ * bare rune counting pass.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark
+{
+	@Param({"true", "false"})
+	public boolean runePouch;
+
+	@Param({"true", "false"})
+	public boolean fireStaff;
+
+	private PluginHarness harness;
+	private ItemContainerChanged inventoryChanged;
+	private ItemContainerChanged[] restock;
+	private int restockIndex;
+	private ItemContainerChanged[] runeCast;
+	private int runeCastIndex;
+	private VarbitChanged[] pouchAmountChanged;
+	private int pouchAmountIndex;
+	private VarbitChanged spellbookChanged;
+
+	private ContainerSnapshot snapshot;
+	private ItemContainer inventory;
+	private ItemContainer equipment;
+
+	@Setup
+	public void setUp()
+	{
+		harness = BenchmarkFixtures.warningHarness(PluginHarness.quietConfig(), runePouch, fireStaff);
+
+		inventory = harness.client.getContainer(InventoryID.INVENTORY);
+		equipment = harness.client.getContainer(InventoryID.EQUIPMENT);
+		inventoryChanged = new ItemContainerChanged(InventoryID.INVENTORY.getId(), inventory);
+
+		// Alternates between the full inventory and one with every rune stack
+		// topped up, as after withdrawing a bank preset.
+		Item[] restocked = BenchmarkFixtures.fullInventory(runePouch);
+		for (int slot = 1; slot < restocked.length; slot++)
+		{
+			if (restocked[slot].getId() != ItemID.SHARK)
+			{
+				restocked[slot] = new Item(restocked[slot].getId(), restocked[slot].getQuantity() + 100);
+			}
+		}
+		restock = new ItemContainerChanged[] {
+			inventoryChanged,
+			new ItemContainerChanged(InventoryID.INVENTORY.getId(), FakeItemContainer.create(InventoryID.INVENTORY.getId(), restocked))
+		};
+
+		// Alternates between the full inventory and one with a single fire
+		// rune used, the typical one-slot change of casting a spell.
+		Item[] afterCast = BenchmarkFixtures.fullInventory(runePouch);
+		afterCast[1] = new Item(ItemID.FIRE_RUNE, afterCast[1].getQuantity() - 1);
+		runeCast = new ItemContainerChanged[] {
+			inventoryChanged,
+			new ItemContainerChanged(InventoryID.INVENTORY.getId(), FakeItemContainer.create(InventoryID.INVENTORY.getId(), afterCast))
+		};
+
+		// Alternates the first pouch slot between its amount and one rune more.
+		// Without a carried pouch the handler drops the change, as it cannot
+		// affect the reminder.
+		int pouchAmount = harness.client.getVarbit(Varbits.RUNE_POUCH_AMOUNT1);
+		pouchAmountChanged = new VarbitChanged[] {
+			pouchAmountChanged(pouchAmount),
+			pouchAmountChanged(pouchAmount + 1)
+		};
+
+		spellbookChanged = new VarbitChanged();
+		spellbookChanged.setVarbitId(Varbits.SPELLBOOK);
+		spellbookChanged.setValue(BenchmarkFixtures.ARCEUUS_SPELLBOOK);
+
+		snapshot = new ContainerSnapshot();
+	}
+
+	@Benchmark
+	public boolean itemContainerChanged()
+	{
+		restockIndex ^= 1;
+		harness.plugin.onItemContainerChanged(restock[restockIndex]);
+		harness.tick();
+		return harness.plugin.shouldShowWarning();
+	}
+
+	@Benchmark
+	public boolean singleSlotChanged()
+	{
+		runeCastIndex ^= 1;
+		harness.plugin.onItemContainerChanged(runeCast[runeCastIndex]);
+		harness.tick();
+		return harness.plugin.shouldShowWarning();
+	}
+
+	@Benchmark
+	public boolean runePouchVarbitChanged()
+	{
+		pouchAmountIndex ^= 1;
+		harness.plugin.onVarbitChanged(pouchAmountChanged[pouchAmountIndex]);
+		harness.tick();
+		return harness.plugin.shouldShowWarning();
+	}
+
+	@Benchmark
+	public boolean spellbookVarbitChanged()
+	{
+		harness.plugin.onVarbitChanged(spellbookChanged);
+		harness.tick();
+		return harness.plugin.shouldShowWarning();
+	}
+
+	@Benchmark
+	public int countRunes()
+	{
+		snapshot.resetContainers();
+		snapshot.updateInventory(inventory);
+		snapshot.updateEquipment(equipment);
+		return snapshot.totalRunes(Rune.FIRE) + snapshot.totalRunes(Rune.BLOOD) + snapshot.totalRunes(Rune.COSMIC);
+	}
+
+	private static VarbitChanged pouchAmountChanged(int amount)
+	{
+		VarbitChanged event = new VarbitChanged();
+		event.setVarbitId(Varbits.RUNE_POUCH_AMOUNT1);
+		event.setValue(amount);
+		return event;
+	}
+}
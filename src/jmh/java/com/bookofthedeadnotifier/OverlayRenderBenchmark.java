@@ -0,0 +1,79 @@
+package com.bookofthedeadnotifier;
+
+import net.runelite.client.ui.FontManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady-state overlay frames with an active reminder, drawn to an
+ * offscreen image.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class OverlayRenderBenchmark
+{
+	@Param({"LONG_TEXT", "SHORT_TEXT", "CUSTOM_TEXT"})
+	public BookOfTheDeadNotifierStyle style;
+
+	@Param({"false", "true"})
+	public boolean cacheReminderImage;
+
+	// OFF, or the easing of the flash.
+	@Param({"OFF", "BLINK", "SMOOTH"})
+	public String flash;
+
+	private PluginHarness harness;
+	private BufferedImage surface;
+	private Graphics2D graphics;
+	private int gameCycle;
+
+	@Setup
+	public void setUp()
+	{
+		BookOfTheDeadNotifierConfig config = new FakeConfig()
+			.set("reminderStyle", style)
+			.set("flashReminderBox", !flash.equals("OFF"))
+			.set("flashEasing", flash.equals("OFF") ? null : FlashEasing.valueOf(flash))
+			.set("cacheReminderImage", cacheReminderImage)
+			.getConfig();
+		harness = BenchmarkFixtures.warningHarness(config, true, false);
+
+		surface = new BufferedImage(765, 503, BufferedImage.TYPE_INT_ARGB);
+		graphics = surface.createGraphics();
+		graphics.setFont(FontManager.getRunescapeFont());
+		graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		graphics.dispose();
+	}
+
+	@Benchmark
+	public Dimension render()
+	{
+		harness.client.setGameCycle(gameCycle++);
+		return harness.overlay.render(graphics);
+	}
+}
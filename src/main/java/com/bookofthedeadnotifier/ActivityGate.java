@@ -0,0 +1,81 @@
+package com.bookofthedeadnotifier;
+
+import java.util.BitSet;
+
+/**
+ * Decides whether the player is somewhere reminders matter: in one of the
+ * configured regions, or recently in combat. The region check only runs
+ * when the player enters another region; combat is a tick comparison.
+ */
+final class ActivityGate
+{
+    private boolean inActiveRegion = false;
+    private boolean combatSeen = false;
+    private int lastCombatTick;
+
+    /**
+     * Parses a list of region ids separated by commas or whitespace.
+     * Anything that is not a valid region id is ignored.
+     */
+    static BitSet parseRegions(String regions)
+    {
+        BitSet set = new BitSet();
+        if (regions == null)
+        {
+            return set;
+        }
+
+        for (String token : regions.split("[,\\s]+"))
+        {
+            if (token.isEmpty())
+            {
+                continue;
+            }
+
+            try
+            {
+                int region = Integer.parseInt(token);
+                if (region >= 0 && region <= 0xFFFF)
+                {
+                    set.set(region);
+                }
+            }
+            catch (NumberFormatException e)
+            {
+                // Skip typos rather than reject the whole list.
+            }
+        }
+        return set;
+    }
+
+    /**
+     * @param region the region the player stands in, or -1 if unknown
+     */
+    void updateRegion(int region, ConfigSnapshot settings)
+    {
+        inActiveRegion = settings.isActiveRegion(region);
+    }
+
+    void markCombat(int tick)
+    {
+        combatSeen = true;
+        lastCombatTick = tick;
+    }
+
+    void reset()
+    {
+        inActiveRegion = false;
+        combatSeen = false;
+    }
+
+    boolean isActive(ConfigSnapshot settings, int tick)
+    {
+        if (!settings.isGateByActivity() || inActiveRegion)
+        {
+            return true;
+        }
+
+        int combatTicks = settings.getRecentCombatTicks();
+        return combatSeen && combatTicks > 0 && tick - lastCombatTick <= combatTicks;
+    }
+}
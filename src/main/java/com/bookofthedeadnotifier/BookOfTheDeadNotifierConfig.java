@@ -4,9 +4,11 @@ import net.runelite.client.config.*;
 
 import java.awt.*;
 
-@ConfigGroup("bookofthedeadreminder")
+@ConfigGroup(BookOfTheDeadNotifierConfig.GROUP)
 public interface BookOfTheDeadNotifierConfig extends Config
 {
+    String GROUP = "bookofthedeadreminder";
+
     @ConfigItem(
         keyName = "reminderStyle",
         name = "Reminder Text",
@@ -84,6 +86,32 @@ public interface BookOfTheDeadNotifierConfig extends Config
         return true;
     }
 
+    @Range(min = 0)
+    @ConfigItem(
+        keyName = "dwellTicks",
+        name = "Reminder Delay (ticks)",
+        description = "Game ticks a change must last before the reminder appears or clears",
+        position = 3,
+        section = notificationConditionsSection
+    )
+    default int dwellTicks()
+    {
+        return 0;
+    }
+
+    @Range(min = 0)
+    @ConfigItem(
+        keyName = "notificationCooldownTicks",
+        name = "Notification Cooldown (ticks)",
+        description = "Minimum game ticks between notifications for the same condition",
+        position = 4,
+        section = notificationConditionsSection
+    )
+    default int notificationCooldownTicks()
+    {
+        return 0;
+    }
+
     @ConfigSection(
         name = "Rune Thresholds",
         description = "Minimum rune quantities required",
@@ -128,6 +156,32 @@ public interface BookOfTheDeadNotifierConfig extends Config
         return 1;
     }
 
+    @Range(min = 0)
+    @ConfigItem(
+        keyName = "lowCastsThreshold",
+        name = "Low Supply Casts",
+        description = "Remind when fewer than this many casts remain for an enabled loadout (0 to disable)",
+        position = 3,
+        section = runeThresholdSection
+    )
+    default int lowCastsThreshold()
+    {
+        return 0;
+    }
+
+    @Range(min = 0)
+    @ConfigItem(
+        keyName = "runeMargin",
+        name = "Rune Margin",
+        description = "Once runes are reported missing, how many runes above the minimum are needed to clear the reminder",
+        position = 4,
+        section = runeThresholdSection
+    )
+    default int runeMargin()
+    {
+        return 0;
+    }
+
     @ConfigSection(
         name = "Display Options",
         description = "Customize the appearance of warnings",
@@ -138,7 +192,7 @@ public interface BookOfTheDeadNotifierConfig extends Config
     @ConfigItem(
         keyName = "customText",
         name = "Custom Text",
-        description = "Custom text to display when using CUSTOM_TEXT style",
+        description = "Custom text to display when using CUSTOM_TEXT style. {missing}, {loadout}, {fire}, {blood}, {cosmic} and {casts} show live values",
         position = 0,
         section = displaySection
     )
@@ -150,7 +204,7 @@ public interface BookOfTheDeadNotifierConfig extends Config
     @ConfigItem(
         keyName = "flashReminderBox",
         name = "Flash the Reminder Box",
-        description = "Makes the reminder box flash between two colors",
+        description = "Makes the reminder box flash or pulse between two colors",
         position = 1,
         section = displaySection
     )
@@ -184,4 +238,185 @@ public interface BookOfTheDeadNotifierConfig extends Config
     {
         return new Color(70, 70, 70, 150);
     }
+
+    @ConfigItem(
+        keyName = "flashEasing",
+        name = "Flash Easing",
+        description = "How the box moves between the colors: blink switches, linear and smooth fade (if flashing enabled)",
+        position = 4,
+        section = displaySection
+    )
+    default FlashEasing flashEasing()
+    {
+        return FlashEasing.BLINK;
+    }
+
+    @Range(min = 100, max = 10000)
+    @ConfigItem(
+        keyName = "flashPeriod",
+        name = "Flash Period (ms)",
+        description = "Time for one full flash, from the main color to the flash color and back",
+        position = 5,
+        section = displaySection
+    )
+    default int flashPeriod()
+    {
+        return 800;
+    }
+
+    @ConfigItem(
+        keyName = "cacheReminderImage",
+        name = "Cache Reminder Image",
+        description = "Draws the reminder from a pre-rendered image instead of laying out the text every frame",
+        position = 6,
+        section = displaySection
+    )
+    default boolean cacheReminderImage()
+    {
+        return false;
+    }
+
+    @ConfigItem(
+        keyName = "detachIdleOverlay",
+        name = "Detach Idle Overlay",
+        description = "Only register the reminder overlay while a reminder is showing. Saves per-frame work, but the overlay can then only be moved while visible",
+        position = 7,
+        section = displaySection
+    )
+    default boolean detachIdleOverlay()
+    {
+        return false;
+    }
+
+    @ConfigSection(
+        name = "Loadouts",
+        description = "Choose which spell loadouts to remind about",
+        position = 6,
+        closedByDefault = true
+    )
+    String loadoutSection = "loadouts";
+
+    @ConfigItem(
+        keyName = "remindThralls",
+        name = "Thralls",
+        description = "Remind when missing the Book of the Dead, Arceuus spellbook or thrall runes",
+        position = 0,
+        section = loadoutSection
+    )
+    default boolean remindThralls()
+    {
+        return true;
+    }
+
+    @ConfigItem(
+        keyName = "remindDeathCharge",
+        name = "Death Charge",
+        description = "Remind when missing the Arceuus spellbook or Death Charge runes",
+        position = 1,
+        section = loadoutSection
+    )
+    default boolean remindDeathCharge()
+    {
+        return false;
+    }
+
+    @ConfigItem(
+        keyName = "remindMarkOfDarkness",
+        name = "Mark of Darkness",
+        description = "Remind when missing the Arceuus spellbook or Mark of Darkness runes",
+        position = 2,
+        section = loadoutSection
+    )
+    default boolean remindMarkOfDarkness()
+    {
+        return false;
+    }
+
+    @ConfigItem(
+        keyName = "remindVengeance",
+        name = "Vengeance",
+        description = "Remind when missing the Lunar spellbook or Vengeance runes",
+        position = 3,
+        section = loadoutSection
+    )
+    default boolean remindVengeance()
+    {
+        return false;
+    }
+
+    @ConfigSection(
+        name = "Active Areas",
+        description = "Limit reminders to chosen regions or to combat",
+        position = 7,
+        closedByDefault = true
+    )
+    String activitySection = "activity";
+
+    @ConfigItem(
+        keyName = "gateByActivity",
+        name = "Only In Active Areas",
+        description = "Only check requirements in the listed regions or while in combat",
+        position = 0,
+        section = activitySection
+    )
+    default boolean gateByActivity()
+    {
+        return false;
+    }
+
+    @ConfigItem(
+        keyName = "activeRegions",
+        name = "Active Regions",
+        description = "Region IDs where reminders are active, separated by commas",
+        position = 1,
+        section = activitySection
+    )
+    default String activeRegions()
+    {
+        return "";
+    }
+
+    @ConfigItem(
+        keyName = "recentCombatTicks",
+        name = "Combat Timeout (ticks)",
+        description = "Game ticks after the last attack or hit during which reminders stay active (0 to ignore combat)",
+        position = 2,
+        section = activitySection
+    )
+    default int recentCombatTicks()
+    {
+        return 16;
+    }
+
+    @ConfigSection(
+        name = "Developer",
+        description = "Diagnostics for troubleshooting the plugin",
+        position = 8,
+        closedByDefault = true
+    )
+    String developerSection = "developer";
+
+    @ConfigItem(
+        keyName = "recordEvents",
+        name = "Record Events",
+        description = "Records the events the plugin receives to a file in the RuneLite folder for offline replay",
+        position = 0,
+        section = developerSection
+    )
+    default boolean recordEvents()
+    {
+        return false;
+    }
+
+    @ConfigItem(
+        keyName = "showPerformanceOverlay",
+        name = "Show Performance Overlay",
+        description = "Shows event, evaluation and render timings for this plugin",
+        position = 1,
+        section = developerSection
+    )
+    default boolean showPerformanceOverlay()
+    {
+        return false;
+    }
 }
@@ -7,41 +7,127 @@ import net.runelite.client.ui.overlay.components.LineComponent;
 
 import javax.inject.Inject;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 
 public class BookOfTheDeadNotifierOverlay extends OverlayPanel
 {
     private final Client client;
     private final BookOfTheDeadNotifierPlugin plugin;
-    private final BookOfTheDeadNotifierConfig config;
+
+    // Panel content is rebuilt only when one of these changes, so an
+    // unchanged frame renders without allocating.
+    private String cachedText;
+    private BookOfTheDeadNotifierStyle cachedStyle;
+    private Font cachedFont;
+
+    // Custom text is only rebuilt when a value its template uses changes.
+    private final TextTemplate.Cache customTextCache = new TextTemplate.Cache();
+    private final int[] templateValues = new int[TextTemplate.Placeholder.COUNT];
+
+    // Room for every color of a pulse plus a few texts.
+    private static final int IMAGE_CACHE_SIZE = FlashPalette.STEPS + 8;
+    private final ReminderImageCache imageCache = new ReminderImageCache(IMAGE_CACHE_SIZE);
 
     @Inject
-    private BookOfTheDeadNotifierOverlay(Client client, BookOfTheDeadNotifierPlugin plugin, BookOfTheDeadNotifierConfig config)
+    private BookOfTheDeadNotifierOverlay(Client client, BookOfTheDeadNotifierPlugin plugin)
     {
         this.client = client;
         this.plugin = plugin;
-        this.config = config;
         setPosition(OverlayPosition.ABOVE_CHATBOX_RIGHT);
+        setClearChildren(false);
     }
 
     @Override
     public Dimension render(Graphics2D graphics)
+    {
+        long start = System.nanoTime();
+        try
+        {
+            return renderReminder(graphics);
+        }
+        finally
+        {
+            plugin.getPerformanceStats().render.record(System.nanoTime() - start);
+        }
+    }
+
+    private Dimension renderReminder(Graphics2D graphics)
     {
         if (!shouldRenderWarning())
         {
             return null;
         }
 
-        String displayText = getDisplayText();
+        ConfigSnapshot settings = plugin.getConfigSnapshot();
+        String displayText = getDisplayText(settings);
         if (displayText == null)
         {
             return null;
         }
 
-        setupPanelContent(displayText);
-        configurePanelSize(graphics, displayText);
-        configurePanelColor();
+        if (settings.isCacheReminderImage())
+        {
+            return renderCachedImage(graphics, displayText, settings);
+        }
+
+        updatePanelContent(graphics, displayText, settings);
+        configurePanelColor(settings);
 
-        return renderPanel(graphics);
+        return renderPanel(graphics, settings);
+    }
+
+    private Dimension renderCachedImage(Graphics2D graphics, String displayText, ConfigSnapshot settings)
+    {
+        imageCache.validate(settings, graphics.getFont());
+
+        Color backgroundColor = getCurrentBackgroundColor(settings);
+        ReminderImageCache.Entry entry = imageCache.find(displayText, backgroundColor);
+        if (entry == null)
+        {
+            entry = rasterizePanel(graphics, displayText, backgroundColor, settings);
+        }
+
+        graphics.drawImage(entry.getImage(), 0, 0, null);
+        return entry.getSize();
+    }
+
+    private ReminderImageCache.Entry rasterizePanel(Graphics2D graphics, String displayText, Color backgroundColor, ConfigSnapshot settings)
+    {
+        updatePanelContent(graphics, displayText, settings);
+        panelComponent.setBackgroundColor(backgroundColor);
+
+        // Lay the panel out once off-screen to learn its size, then draw it
+        // for real into an image of exactly that size.
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D scratchGraphics = createImageGraphics(scratch, graphics);
+        Dimension size = renderPanel(scratchGraphics, settings);
+        scratchGraphics.dispose();
+
+        int width = Math.max(1, size.width);
+        int height = Math.max(1, size.height);
+        BufferedImage image = graphics.getDeviceConfiguration().createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        Graphics2D imageGraphics = createImageGraphics(image, graphics);
+        renderPanel(imageGraphics, settings);
+        imageGraphics.dispose();
+
+        return imageCache.put(displayText, backgroundColor, image, new Dimension(size));
+    }
+
+    private static Graphics2D createImageGraphics(BufferedImage image, Graphics2D source)
+    {
+        Graphics2D imageGraphics = image.createGraphics();
+        imageGraphics.setRenderingHints(source.getRenderingHints());
+        imageGraphics.setFont(source.getFont());
+        return imageGraphics;
+    }
+
+    private void updatePanelContent(Graphics2D graphics, String displayText, ConfigSnapshot settings)
+    {
+        if (isPanelContentStale(graphics, displayText, settings))
+        {
+            setupPanelContent(displayText);
+            configurePanelSize(graphics, displayText, settings);
+        }
     }
 
     private boolean shouldRenderWarning()
@@ -55,6 +141,21 @@ public class BookOfTheDeadNotifierOverlay extends OverlayPanel
         return condition != MissingCondition.NONE;
     }
 
+    private boolean isPanelContentStale(Graphics2D graphics, String displayText, ConfigSnapshot settings)
+    {
+        Font font = graphics.getFont();
+        BookOfTheDeadNotifierStyle style = settings.getReminderStyle();
+        if (displayText.equals(cachedText) && style == cachedStyle && font.equals(cachedFont))
+        {
+            return false;
+        }
+
+        cachedText = displayText;
+        cachedStyle = style;
+        cachedFont = font;
+        return true;
+    }
+
     private void setupPanelContent(String displayText)
     {
         panelComponent.getChildren().clear();
@@ -63,45 +164,31 @@ public class BookOfTheDeadNotifierOverlay extends OverlayPanel
             .build());
     }
 
-    private void configurePanelSize(Graphics2D graphics, String displayText)
+    private void configurePanelSize(Graphics2D graphics, String displayText, ConfigSnapshot settings)
     {
         FontMetrics fontMetrics = graphics.getFontMetrics();
         int textWidth = fontMetrics.stringWidth(displayText);
-        int padding = getTextPadding();
+        int padding = getTextPadding(settings);
         int totalWidth = textWidth + padding;
 
         panelComponent.setPreferredSize(new Dimension(totalWidth, 0));
     }
 
-    private void configurePanelColor()
+    private void configurePanelColor(ConfigSnapshot settings)
     {
-        Color backgroundColor = getCurrentBackgroundColor();
+        Color backgroundColor = getCurrentBackgroundColor(settings);
         panelComponent.setBackgroundColor(backgroundColor);
     }
 
-    private Color getCurrentBackgroundColor()
-    {
-        if (shouldFlash())
-        {
-            return config.flashColor();
-        }
-        return config.reminderColor();
-    }
-
-    private boolean shouldFlash()
+    private Color getCurrentBackgroundColor(ConfigSnapshot settings)
     {
-        if (!config.flashReminderBox())
-        {
-            return false;
-        }
-
-        int gameCycle = client.getGameCycle();
-        return gameCycle % 40 >= 20;
+        FlashPalette palette = settings.getFlashPalette();
+        return palette.isAnimated() ? palette.colorAt(client.getGameCycle()) : palette.colorAt(0);
     }
 
-    private Dimension renderPanel(Graphics2D graphics)
+    private Dimension renderPanel(Graphics2D graphics, ConfigSnapshot settings)
     {
-        boolean useCustomTextStyle = config.reminderStyle() == BookOfTheDeadNotifierStyle.CUSTOM_TEXT;
+        boolean useCustomTextStyle = settings.getReminderStyle() == BookOfTheDeadNotifierStyle.CUSTOM_TEXT;
         if (useCustomTextStyle)
         {
             return super.render(graphics);
@@ -109,33 +196,54 @@ public class BookOfTheDeadNotifierOverlay extends OverlayPanel
         return panelComponent.render(graphics);
     }
 
-    private String getDisplayText()
+    private String getDisplayText(ConfigSnapshot settings)
     {
-        BookOfTheDeadNotifierStyle style = config.reminderStyle();
+        BookOfTheDeadNotifierStyle style = settings.getReminderStyle();
         
+        Loadout loadout = plugin.getCurrentLoadout();
+        MissingCondition condition = plugin.getCurrentMissingCondition();
+
         if (style == BookOfTheDeadNotifierStyle.CUSTOM_TEXT)
         {
-            return config.customText();
+            return getCustomText(settings.getCustomText(), loadout, condition);
         }
-
-        MissingCondition condition = plugin.getCurrentMissingCondition();
         
         if (style == BookOfTheDeadNotifierStyle.LONG_TEXT)
         {
-            return condition.getLongText();
+            return loadout.getLongText(condition);
         }
         
         if (style == BookOfTheDeadNotifierStyle.SHORT_TEXT)
         {
-            return condition.getShortText();
+            return loadout.getShortText(condition);
         }
         
         return null;
     }
 
-    private int getTextPadding()
+    private String getCustomText(TextTemplate template, Loadout loadout, MissingCondition condition)
+    {
+        setTemplateValue(template, TextTemplate.Placeholder.FIRE, Rune.FIRE);
+        setTemplateValue(template, TextTemplate.Placeholder.BLOOD, Rune.BLOOD);
+        setTemplateValue(template, TextTemplate.Placeholder.COSMIC, Rune.COSMIC);
+        if (template.uses(TextTemplate.Placeholder.CASTS))
+        {
+            templateValues[TextTemplate.Placeholder.CASTS.ordinal()] = plugin.getCastsRemaining(loadout);
+        }
+        return customTextCache.render(template, loadout, condition, templateValues);
+    }
+
+    private void setTemplateValue(TextTemplate template, TextTemplate.Placeholder placeholder, Rune rune)
+    {
+        if (template.uses(placeholder))
+        {
+            templateValues[placeholder.ordinal()] = plugin.getRuneTotal(rune);
+        }
+    }
+
+    private int getTextPadding(ConfigSnapshot settings)
     {
-        switch (config.reminderStyle())
+        switch (settings.getReminderStyle())
         {
             case LONG_TEXT:
             case CUSTOM_TEXT:
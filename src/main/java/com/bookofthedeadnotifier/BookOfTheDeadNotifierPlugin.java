@@ -3,11 +3,21 @@ package com.bookofthedeadnotifier;
 import com.google.inject.Provides;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.*;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.HitsplatApplied;
+import net.runelite.api.events.InteractingChanged;
 import net.runelite.api.events.VarbitChanged;
 import net.runelite.api.events.ItemContainerChanged;
 import net.runelite.client.Notifier;
+import net.runelite.client.RuneLite;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.config.ConfigItem;
 import net.runelite.client.config.ConfigManager;
+import net.runelite.client.config.Notification;
 import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.events.ConfigChanged;
 import net.runelite.client.input.KeyManager;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
@@ -15,6 +25,12 @@ import net.runelite.client.ui.overlay.OverlayManager;
 import net.runelite.client.util.HotkeyListener;
 
 import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
 
 @Slf4j
 @PluginDescriptor(
@@ -27,6 +43,9 @@ public class BookOfTheDeadNotifierPlugin extends Plugin
     @Inject
     private Client client;
 
+    @Inject
+    private ClientThread clientThread;
+
     @Inject
     private BookOfTheDeadNotifierConfig config;
 
@@ -36,451 +55,676 @@ public class BookOfTheDeadNotifierPlugin extends Plugin
     @Inject
     private BookOfTheDeadNotifierOverlay overlay;
 
+    @Inject
+    private PerformanceOverlay performanceOverlay;
+
     @Inject
     private Notifier notifier;
 
     @Inject
     private KeyManager keyManager;
 
-    private boolean hasArceuusSpellbook = false;
-    private boolean hasSufficientThrallRunes = false;
-    private boolean hasBookOfTheDead = false;
+    @Inject
+    private ConfigManager configManager;
+
+    private static final File EVENT_LOG_DIR = new File(RuneLite.RUNELITE_DIR, "book-of-the-dead-reminder");
+
+    private int spellbook = -1;
     private boolean warningShown = false;
+    private Loadout currentLoadout;
     private MissingCondition currentMissingCondition = MissingCondition.NONE;
+    private final ContainerSnapshot snapshot = new ContainerSnapshot();
+    private volatile ConfigSnapshot configSnapshot;
+    private LoadoutEvaluator loadoutEvaluator;
+    private final int[] loadoutMissing = new int[Loadout.values().length];
+    private final int[] loadoutCasts = new int[Loadout.values().length];
+    private boolean castsStale = true;
+
+    // A new warning state is only acted on once it has held for the
+    // configured dwell time; until then it waits here.
+    private int tickCounter = 0;
+    private Loadout pendingLoadout;
+    private MissingCondition pendingCondition;
+    private int pendingSince;
+    private final int[] nextNotificationTick = new int[MissingCondition.values().length];
+
+    // Events only record what changed; the work is done once per game tick.
+    // Until logged in they are ignored and a bootstrap covers them instead.
+    private boolean loggedIn = false;
+    private int dirtyRequirements = 0;
+    private boolean evaluationPending = false;
+    private final PerformanceStats performanceStats = new PerformanceStats();
+    private boolean performanceOverlayShown = false;
+    private boolean overlayAttached = false;
+
+    // Set by shutDown so client thread work queued before it cannot put
+    // overlays back once the plugin has stopped.
+    private volatile boolean stopped = true;
+
+    // Opened, written and closed only on the client thread, so records
+    // never interleave and no handler sees it closed mid-write.
+    private EventRecorder eventRecorder;
+    private NotificationDispatcher notificationDispatcher;
+    // Containers are rescanned in full only until the first one is seen;
+    // after that each event updates the snapshot by slot difference.
+    private boolean containersDirty = true;
+    private boolean suppliesChanged = false;
+    private boolean runePouchDirty = true;
+
+    // Optional gate: outside active regions and combat, events are only
+    // marked dirty and ticks do no work until the player is active again.
+    private final ActivityGate activityGate = new ActivityGate();
+    private boolean activityActive = true;
+    private int playerRegion = -1;
 
     private final HotkeyListener hotkeyListener = new HotkeyListener(() -> config.hideReminderHotkey())
     {
         @Override
         public void hotkeyPressed()
         {
-            hideWarning();
+            clientThread.invoke(BookOfTheDeadNotifierPlugin.this::hideWarning);
         }
     };
 
     @Override
     protected void startUp() throws Exception
     {
-        overlayManager.add(overlay);
+        configSnapshot = ConfigSnapshot.from(config);
+        loadoutEvaluator = LoadoutEvaluator.compile(configSnapshot);
+        performanceStats.reset();
+        Arrays.fill(nextNotificationTick, 0);
+        notificationDispatcher = NotificationDispatcher.create(notifier::notify, clientThread);
+        stopped = false;
+        updatePerformanceOverlay();
+        updateOverlayAttachment();
         keyManager.registerKeyListener(hotkeyListener);
+        clientThread.invoke(this::start);
         log.info("Book of the Dead Reminder started!");
     }
 
     @Override
     protected void shutDown() throws Exception
     {
+        stopped = true;
         overlayManager.remove(overlay);
+        overlayAttached = false;
+        overlayManager.remove(performanceOverlay);
+        performanceOverlayShown = false;
         keyManager.unregisterKeyListener(hotkeyListener);
+        notificationDispatcher.shutdown();
+        clientThread.invoke(this::stop);
+        logPerformanceStats();
         log.info("Book of the Dead Reminder stopped!");
     }
 
-    @Subscribe
-    public void onVarbitChanged(VarbitChanged event)
+    /**
+     * The client thread half of startUp.
+     */
+    private void start()
     {
-        if (event.getVarbitId() == Varbits.SPELLBOOK)
-        {
-            checkSpellbook();
-            checkThrallRunes();
-            evaluateWarningState();
-        }
-        else if (isRunePouchVarbit(event.getVarbitId()))
-        {
-            checkThrallRunes();
-            evaluateWarningState();
-        }
+        updateEventRecording();
+        bootstrap();
     }
 
-    private boolean isRunePouchVarbit(int varbitId)
+    /**
+     * The client thread half of shutDown. Events are not delivered while
+     * stopped, so everything read from the client is forgotten and the
+     * next start rebuilds it.
+     */
+    private void stop()
     {
-        return varbitId == Varbits.RUNE_POUCH_RUNE1
-            || varbitId == Varbits.RUNE_POUCH_RUNE2
-            || varbitId == Varbits.RUNE_POUCH_RUNE3
-            || varbitId == Varbits.RUNE_POUCH_RUNE4
-            || varbitId == Varbits.RUNE_POUCH_RUNE5
-            || varbitId == Varbits.RUNE_POUCH_RUNE6
-            || varbitId == Varbits.RUNE_POUCH_AMOUNT1
-            || varbitId == Varbits.RUNE_POUCH_AMOUNT2
-            || varbitId == Varbits.RUNE_POUCH_AMOUNT3
-            || varbitId == Varbits.RUNE_POUCH_AMOUNT4
-            || varbitId == Varbits.RUNE_POUCH_AMOUNT5
-            || varbitId == Varbits.RUNE_POUCH_AMOUNT6;
+        stopEventRecording();
+        resetState();
     }
 
     @Subscribe
-    public void onItemContainerChanged(ItemContainerChanged event)
+    public void onGameStateChanged(GameStateChanged event)
     {
-        boolean isRelevantContainer = isInventoryOrEquipment(event.getContainerId());
-        if (isRelevantContainer)
+        GameState gameState = event.getGameState();
+        if (eventRecorder != null)
         {
-            checkSpellbook();
-            checkThrallRunes();
-            checkBookOfTheDead();
-            evaluateWarningState();
+            eventRecorder.recordGameState(client.getTickCount(), gameState);
         }
-    }
 
-    private boolean isInventoryOrEquipment(int containerId)
-    {
-        return containerId == InventoryID.INVENTORY.getId() 
-            || containerId == InventoryID.EQUIPMENT.getId();
+        loggedIn = false;
+        switch (gameState)
+        {
+            case LOGGED_IN:
+                bootstrap();
+                break;
+            case LOGIN_SCREEN:
+            case HOPPING:
+                resetState();
+                break;
+            default:
+                break;
+        }
     }
 
-    private void evaluateWarningState()
+    /**
+     * Builds the full state from the client in one pass rather than waiting
+     * for individual events, so the reminder is right from the first tick
+     * after enabling the plugin or logging in. Runs on the client thread.
+     */
+    private void bootstrap()
     {
-        int conditionsMet = countConditionsMet();
-        boolean shouldWarn = conditionsMet == 2;
+        if (client.getGameState() != GameState.LOGGED_IN)
+        {
+            return;
+        }
+
+        loggedIn = true;
+        containersDirty = true;
+        runePouchDirty = true;
+        for (Requirement requirement : Requirement.values())
+        {
+            dirtyRequirements |= requirement.mask();
+        }
 
-        if (shouldWarn)
+        playerRegion = readPlayerRegion();
+        activityGate.updateRegion(playerRegion, configSnapshot);
+        activityActive = activityGate.isActive(configSnapshot, tickCounter);
+        if (activityActive)
         {
-            handleWarningState();
+            evaluate();
         }
         else
         {
             hideWarning();
+            pendingCondition = null;
         }
     }
 
-    private int countConditionsMet()
+    /**
+     * Forgets everything read from the client, for logout, world hops and
+     * shutdown.
+     */
+    private void resetState()
     {
-        int count = 0;
-        if (hasArceuusSpellbook) count++;
-        if (hasSufficientThrallRunes) count++;
-        if (hasBookOfTheDead) count++;
-        return count;
+        hideWarning();
+        currentMissingCondition = MissingCondition.NONE;
+        currentLoadout = null;
+        spellbook = -1;
+        snapshot.resetContainers();
+        snapshot.runePouch.invalidate();
+        activityGate.reset();
+        playerRegion = -1;
+        Arrays.fill(loadoutMissing, 0);
+        Arrays.fill(loadoutCasts, 0);
+        castsStale = true;
+        pendingCondition = null;
+        containersDirty = true;
+        runePouchDirty = true;
+        suppliesChanged = false;
+        dirtyRequirements = 0;
+        evaluationPending = false;
     }
 
-    private void handleWarningState()
+    @Subscribe
+    public void onVarbitChanged(VarbitChanged event)
     {
-        MissingCondition missingCondition = determineMissingCondition();
-        
-        if (!isConditionNotificationEnabled(missingCondition))
-        {
-            hideWarning();
-            return;
-        }
-        
-        boolean conditionChanged = missingCondition != currentMissingCondition;
-
-        if (conditionChanged)
-        {
-            currentMissingCondition = missingCondition;
-            showWarning();
-        }
+        long start = System.nanoTime();
+        handleVarbitChanged(event);
+        performanceStats.varbitChanged.record(System.nanoTime() - start);
+        performanceStats.eventsReceived++;
     }
 
-    private boolean isConditionNotificationEnabled(MissingCondition condition)
+    private void handleVarbitChanged(VarbitChanged event)
     {
-        switch (condition)
+        int varbitId = event.getVarbitId();
+        if (eventRecorder != null && varbitId != -1)
         {
-            case BOOK_OF_THE_DEAD:
-                return config.notifyOnMissingBook();
-            case THRALL_RUNES:
-                return config.notifyOnMissingRunes();
-            case ARCEUUS_SPELLBOOK:
-                return config.notifyOnWrongSpellbook();
-            default:
-                return false;
+            eventRecorder.recordVarbit(client.getTickCount(), varbitId, event.getValue());
         }
-    }
 
-    private MissingCondition determineMissingCondition()
-    {
-        if (!hasBookOfTheDead)
+        int affected = Requirement.maskForVarbit(varbitId);
+        if (affected == 0 || !loggedIn)
         {
-            return MissingCondition.BOOK_OF_THE_DEAD;
+            return;
         }
-        
-        if (!hasArceuusSpellbook)
+
+        if (!activityActive)
         {
-            return MissingCondition.ARCEUUS_SPELLBOOK;
+            // Nothing is evaluated while inactive, so the pouch is simply
+            // reloaded once the player is active again.
+            if (RunePouchState.isPouchVarbit(varbitId))
+            {
+                runePouchDirty = true;
+            }
         }
-        
-        if (!hasSufficientThrallRunes)
+        else if (RunePouchState.isPouchVarbit(varbitId) && !runePouchDirty)
         {
-            return MissingCondition.THRALL_RUNES;
+            // The event carries the new value, so only that slot is updated.
+            RunePouchState runePouch = snapshot.runePouch;
+            if (!runePouch.isResolved())
+            {
+                runePouchDirty = true;
+            }
+            else if (runePouch.update(varbitId, event.getValue()))
+            {
+                suppliesChanged = true;
+            }
+            else
+            {
+                return;
+            }
         }
-        
-        return MissingCondition.NONE;
+        dirtyRequirements |= affected;
     }
 
-    public MissingCondition getCurrentMissingCondition()
-    {
-        return currentMissingCondition;
-    }
-
-    private void checkSpellbook()
+    @Subscribe
+    public void onItemContainerChanged(ItemContainerChanged event)
     {
-        int spellbookVarbit = client.getVarbitValue(Varbits.SPELLBOOK);
-        hasArceuusSpellbook = (spellbookVarbit == 3); // 3 = Arceuus spellbook
+        long start = System.nanoTime();
+        handleItemContainerChanged(event);
+        performanceStats.itemContainerChanged.record(System.nanoTime() - start);
+        performanceStats.eventsReceived++;
     }
 
-    private void checkThrallRunes()
+    private void handleItemContainerChanged(ItemContainerChanged event)
     {
-        int fireRunes = countFireRunes();
-        int bloodRunes = countBloodRunes();
-        int cosmicRunes = countCosmicRunes();
+        if (eventRecorder != null)
+        {
+            eventRecorder.recordContainer(client.getTickCount(), event.getContainerId(), event.getItemContainer().getItems());
+        }
 
-        boolean hasEnoughFire = fireRunes >= config.minFireRunes();
-        boolean hasEnoughBlood = bloodRunes >= config.minBloodRunes();
-        boolean hasEnoughCosmic = cosmicRunes >= config.minCosmicRunes();
+        int containerId = event.getContainerId();
+        int affected = Requirement.maskForContainer(containerId);
+        if (affected == 0 || !loggedIn)
+        {
+            return;
+        }
 
-        hasSufficientThrallRunes = hasEnoughFire && hasEnoughBlood && hasEnoughCosmic;
+        if (!activityActive)
+        {
+            containersDirty = true;
+        }
+        else if (!containersDirty)
+        {
+            boolean changed = containerId == InventoryID.INVENTORY.getId()
+                ? snapshot.updateInventory(event.getItemContainer())
+                : snapshot.updateEquipment(event.getItemContainer());
+            if (!changed)
+            {
+                return;
+            }
+            suppliesChanged = true;
+        }
+        dirtyRequirements |= affected;
     }
 
-    private int countFireRunes()
+    @Subscribe
+    public void onConfigChanged(ConfigChanged event)
     {
-        if (hasEquippedFireStaff())
+        if (!BookOfTheDeadNotifierConfig.GROUP.equals(event.getGroup()))
         {
-            return Integer.MAX_VALUE;
+            return;
         }
 
-        int total = 0;
-        total += countRunesInInventory(this::isFireRune);
-        total += countRunesInRunePouch(this::isFireRune);
-        return total;
+        // The event comes from whichever thread changed the setting, usually
+        // the config panel's. Only the immutable snapshot and evaluator are
+        // built here; all plugin state changes on the client thread.
+        ConfigSnapshot settings = ConfigSnapshot.from(config);
+        LoadoutEvaluator evaluator = LoadoutEvaluator.compile(settings);
+        String key = event.getKey();
+        String newValue = event.getNewValue();
+        clientThread.invoke(() -> applyConfig(settings, evaluator, key, newValue));
     }
 
-    private int countBloodRunes()
+    private void applyConfig(ConfigSnapshot settings, LoadoutEvaluator evaluator, String key, String newValue)
     {
-        int total = 0;
-        total += countRunesInInventory(this::isBloodRune);
-        total += countRunesInRunePouch(this::isBloodRune);
-        return total;
-    }
+        configSnapshot = settings;
+        loadoutEvaluator = evaluator;
+        // Casts are indexed in loadout order, which the new evaluator may
+        // have changed, so they are recounted before anything reads them.
+        loadoutEvaluator.countCasts(snapshot, loadoutCasts);
+        castsStale = false;
 
-    private int countCosmicRunes()
-    {
-        int total = 0;
-        total += countRunesInInventory(this::isCosmicRune);
-        total += countRunesInRunePouch(this::isCosmicRune);
-        return total;
+        updateEventRecording();
+        updatePerformanceOverlay();
+        updateOverlayAttachment();
+        if (eventRecorder != null)
+        {
+            eventRecorder.recordConfig(client.getTickCount(), key, newValue);
+        }
+
+        // Any setting can change the reminder, so the next tick evaluates.
+        evaluationPending = true;
+        if (loggedIn)
+        {
+            // The active regions may have changed, so the current region is
+            // checked again even if the player has not moved.
+            playerRegion = readPlayerRegion();
+            activityGate.updateRegion(playerRegion, configSnapshot);
+            updateActivity();
+        }
     }
 
-    private int countRunesInInventory(RuneChecker checker)
+    private void updateEventRecording()
     {
-        ItemContainer inventory = client.getItemContainer(InventoryID.INVENTORY);
-        if (inventory == null)
+        boolean enabled = configSnapshot.isRecordEvents();
+        if (enabled && eventRecorder == null)
         {
-            return 0;
+            startEventRecording();
         }
-
-        int count = 0;
-        for (Item item : inventory.getItems())
+        else if (!enabled && eventRecorder != null)
         {
-            if (checker.matches(item.getId()))
-            {
-                count += item.getQuantity();
-            }
+            stopEventRecording();
         }
-        return count;
     }
 
-    private int countRunesInRunePouch(RuneChecker checker)
+    private void startEventRecording()
     {
-        if (!hasRunePouch())
+        String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        File file = new File(EVENT_LOG_DIR, "events-" + timestamp + ".botd");
+        try
         {
-            return 0;
+            eventRecorder = EventRecorder.open(file);
+            recordCurrentConfig();
+            log.info("Recording events to {}", file);
         }
-
-        int count = 0;
-        for (int slot = 1; slot <= 6; slot++)
+        catch (IOException e)
         {
-            count += countRunesInPouchSlot(slot, checker);
+            log.warn("Unable to record events to {}", file, e);
         }
-        return count;
     }
 
-    private boolean hasRunePouch()
+    private void recordCurrentConfig()
     {
-        return hasItemInEquipmentOrInventory(ItemID.RUNE_POUCH)
-            || hasItemInEquipmentOrInventory(ItemID.RUNE_POUCH_L)
-            || hasItemInEquipmentOrInventory(ItemID.DIVINE_RUNE_POUCH)
-            || hasItemInEquipmentOrInventory(ItemID.DIVINE_RUNE_POUCH_L);
+        // Start the log with the full configuration so a replay does not
+        // depend on the replayer's defaults.
+        int tick = client.getTickCount();
+        for (Method method : BookOfTheDeadNotifierConfig.class.getMethods())
+        {
+            ConfigItem item = method.getAnnotation(ConfigItem.class);
+            if (item != null)
+            {
+                String key = item.keyName();
+                eventRecorder.recordConfig(tick, key, configManager.getConfiguration(BookOfTheDeadNotifierConfig.GROUP, key));
+            }
+        }
     }
 
-    private int countRunesInPouchSlot(int slot, RuneChecker checker)
+    private void stopEventRecording()
     {
-        int runeEnumId = getRunePouchRuneEnumId(slot);
-        int amount = getRunePouchAmount(slot);
+        if (eventRecorder == null)
+        {
+            return;
+        }
 
-        if (runeEnumId == 0 || amount <= 0)
+        eventRecorder.close();
+        log.info("Stopped recording events to {}", eventRecorder.getFile());
+        eventRecorder = null;
+    }
+
+    @Subscribe
+    public void onGameTick(GameTick event)
+    {
+        if (eventRecorder != null)
         {
-            return 0;
+            eventRecorder.recordGameTick(client.getTickCount());
+        }
+        tickCounter++;
+        if (configSnapshot.isGateByActivity())
+        {
+            updatePlayerRegion();
+        }
+        updateActivity();
+        if (!activityActive)
+        {
+            performanceStats.evaluationsSkipped++;
+            return;
         }
 
-        int itemId = convertRuneEnumIdToItemId(runeEnumId);
-        if (checker.matches(itemId))
+        if (dirtyRequirements == 0 && !evaluationPending)
         {
-            return amount;
+            performanceStats.evaluationsSkipped++;
+            if (pendingCondition != null)
+            {
+                transitionTo(pendingLoadout, pendingCondition);
+            }
+            return;
         }
-        return 0;
-    }
 
-    private int convertRuneEnumIdToItemId(int runeEnumId)
-    {
-        EnumComposition runepouchEnum = client.getEnum(EnumID.RUNEPOUCH_RUNE);
-        return runepouchEnum.getIntValue(runeEnumId);
+        evaluate();
     }
 
-    private int getRunePouchRuneEnumId(int slot)
+    @Subscribe
+    public void onInteractingChanged(InteractingChanged event)
     {
-        switch (slot)
+        Actor target = event.getTarget();
+        if (event.getSource() == client.getLocalPlayer()
+            && target instanceof NPC
+            && target.getCombatLevel() > 0)
         {
-            case 1: return client.getVarbitValue(Varbits.RUNE_POUCH_RUNE1);
-            case 2: return client.getVarbitValue(Varbits.RUNE_POUCH_RUNE2);
-            case 3: return client.getVarbitValue(Varbits.RUNE_POUCH_RUNE3);
-            case 4: return client.getVarbitValue(Varbits.RUNE_POUCH_RUNE4);
-            case 5: return client.getVarbitValue(Varbits.RUNE_POUCH_RUNE5);
-            case 6: return client.getVarbitValue(Varbits.RUNE_POUCH_RUNE6);
-            default: return 0;
+            markCombat();
         }
     }
 
-    private int getRunePouchAmount(int slot)
+    @Subscribe
+    public void onHitsplatApplied(HitsplatApplied event)
     {
-        switch (slot)
+        if (event.getActor() == client.getLocalPlayer() || event.getHitsplat().isMine())
         {
-            case 1: return client.getVarbitValue(Varbits.RUNE_POUCH_AMOUNT1);
-            case 2: return client.getVarbitValue(Varbits.RUNE_POUCH_AMOUNT2);
-            case 3: return client.getVarbitValue(Varbits.RUNE_POUCH_AMOUNT3);
-            case 4: return client.getVarbitValue(Varbits.RUNE_POUCH_AMOUNT4);
-            case 5: return client.getVarbitValue(Varbits.RUNE_POUCH_AMOUNT5);
-            case 6: return client.getVarbitValue(Varbits.RUNE_POUCH_AMOUNT6);
-            default: return 0;
+            markCombat();
         }
     }
 
-    private boolean isFireRune(int itemId)
+    /**
+     * Re-checks the region gate once the player has crossed into another
+     * region.
+     */
+    private void updatePlayerRegion()
     {
-        switch (itemId)
+        int region = readPlayerRegion();
+        if (region != playerRegion)
         {
-            case ItemID.FIRE_RUNE:
-            case ItemID.LAVA_RUNE:
-            case ItemID.SMOKE_RUNE:
-            case ItemID.STEAM_RUNE:
-                return true;
-            default:
-                return false;
+            playerRegion = region;
+            activityGate.updateRegion(region, configSnapshot);
         }
     }
 
-    private boolean isBloodRune(int itemId)
+    /**
+     * The region the player stands in, or -1 before the player is loaded.
+     * Inside instances this is the region the instance was copied from.
+     */
+    private int readPlayerRegion()
     {
-        return itemId == ItemID.BLOOD_RUNE;
+        Player player = client.getLocalPlayer();
+        if (player == null)
+        {
+            return -1;
+        }
+
+        WorldPoint location = client.isInInstancedRegion()
+            ? WorldPoint.fromLocalInstance(client, player.getLocalLocation())
+            : player.getWorldLocation();
+        return location == null ? -1 : location.getRegionID();
     }
 
-    private boolean isCosmicRune(int itemId)
+    private void markCombat()
     {
-        switch (itemId)
+        if (!loggedIn)
         {
-            case ItemID.COSMIC_RUNE:
-            case ItemID.AETHER_RUNE:
-                return true;
-            default:
-                return false;
+            return;
         }
-    }
 
-    @FunctionalInterface
-    private interface RuneChecker
-    {
-        boolean matches(int itemId);
+        activityGate.markCombat(tickCounter);
+        updateActivity();
     }
 
-    private boolean hasEquippedFireStaff()
+    /**
+     * Applies a change of the activity gate: entering catches up on
+     * everything marked dirty meanwhile, leaving hides the reminder.
+     */
+    private void updateActivity()
     {
-        Item weapon = getEquippedWeapon();
-        if (weapon == null)
+        boolean active = activityGate.isActive(configSnapshot, tickCounter);
+        if (active == activityActive)
         {
-            return false;
+            return;
         }
 
-        return isFireStaff(weapon.getId());
+        activityActive = active;
+        if (!loggedIn)
+        {
+            return;
+        }
+
+        if (active)
+        {
+            evaluationPending = true;
+            evaluate();
+        }
+        else
+        {
+            hideWarning();
+            pendingCondition = null;
+        }
     }
 
-    private Item getEquippedWeapon()
+    private void evaluate()
     {
-        ItemContainer equipment = client.getItemContainer(InventoryID.EQUIPMENT);
-        if (equipment == null)
+        long start = System.nanoTime();
+        int dirty = dirtyRequirements;
+        dirtyRequirements = 0;
+        evaluationPending = false;
+
+        if ((dirty & Requirement.SPELLBOOK.mask()) != 0)
+        {
+            checkSpellbook();
+        }
+        if (refreshSnapshot() || castsStale)
         {
-            return null;
+            // Casts only depend on rune totals, so they are recounted only
+            // when a container, the pouch or the config could have moved them.
+            castsStale = false;
+            loadoutEvaluator.countCasts(snapshot, loadoutCasts);
         }
+        int shortageIndex = currentMissingCondition == MissingCondition.RUNES
+            ? loadoutEvaluator.indexOf(currentLoadout)
+            : -1;
+        loadoutEvaluator.evaluate(snapshot, spellbook, shortageIndex, loadoutMissing);
 
-        return equipment.getItem(EquipmentInventorySlot.WEAPON.getSlotIdx());
+        evaluateWarningState();
+        performanceStats.evaluation.record(System.nanoTime() - start);
+        performanceStats.evaluationsRun++;
     }
 
-    private boolean isFireStaff(int itemId)
+    private void evaluateWarningState()
     {
-        switch (itemId)
+        // Warn about the first enabled loadout, in declaration order, that is
+        // missing exactly one of its requirements or is ready but running low.
+        int lowCastsThreshold = configSnapshot.getLowCastsThreshold();
+        for (int i = 0; i < loadoutEvaluator.size(); i++)
         {
-            case ItemID.STAFF_OF_FIRE:
-            case ItemID.FIRE_BATTLESTAFF:
-            case ItemID.MYSTIC_FIRE_STAFF:
-            case ItemID.LAVA_BATTLESTAFF:
-            case ItemID.MYSTIC_LAVA_STAFF:
-            case ItemID.STEAM_BATTLESTAFF:
-            case ItemID.MYSTIC_STEAM_STAFF:
-            case ItemID.SMOKE_BATTLESTAFF:
-            case ItemID.MYSTIC_SMOKE_STAFF:
-            case ItemID.TOME_OF_FIRE:
-            case ItemID.TWINFLAME_STAFF:
-                return true;
-            default:
-                return false;
+            MissingCondition missingCondition = loadoutEvaluator.getReminder(i, loadoutMissing[i], loadoutCasts[i], lowCastsThreshold);
+            if (missingCondition != MissingCondition.NONE && configSnapshot.isNotifyEnabled(missingCondition))
+            {
+                transitionTo(loadoutEvaluator.getLoadout(i), missingCondition);
+                return;
+            }
         }
-    }
 
-    private void checkBookOfTheDead()
-    {
-        hasBookOfTheDead = hasItemInEquipmentOrInventory(ItemID.BOOK_OF_THE_DEAD);
+        transitionTo(currentLoadout, MissingCondition.NONE);
     }
 
-    private boolean hasItemInEquipmentOrInventory(int itemId)
+    private void transitionTo(Loadout loadout, MissingCondition missingCondition)
     {
-        if (hasItemInEquipment(itemId))
+        boolean unchanged = missingCondition == currentMissingCondition
+            && (missingCondition == MissingCondition.NONE || loadout == currentLoadout);
+        if (unchanged)
         {
-            return true;
+            pendingCondition = null;
+            return;
         }
 
-        if (hasItemInInventory(itemId))
+        if (loadout != pendingLoadout || missingCondition != pendingCondition)
         {
-            return true;
+            pendingLoadout = loadout;
+            pendingCondition = missingCondition;
+            pendingSince = tickCounter;
         }
 
-        return false;
+        if (tickCounter - pendingSince < configSnapshot.getDwellTicks())
+        {
+            return;
+        }
+
+        pendingCondition = null;
+        if (missingCondition == MissingCondition.NONE)
+        {
+            hideWarning();
+        }
+        else
+        {
+            handleWarningState(loadout, missingCondition);
+        }
     }
 
-    private boolean hasItemInEquipment(int itemId)
+    private void handleWarningState(Loadout loadout, MissingCondition missingCondition)
     {
-        ItemContainer equipment = client.getItemContainer(InventoryID.EQUIPMENT);
-        if (equipment == null)
+        boolean conditionChanged = loadout != currentLoadout || missingCondition != currentMissingCondition;
+
+        if (conditionChanged)
         {
-            return false;
+            currentLoadout = loadout;
+            currentMissingCondition = missingCondition;
+            showWarning();
         }
+    }
 
-        return containsItem(equipment, itemId);
+    public MissingCondition getCurrentMissingCondition()
+    {
+        return currentMissingCondition;
     }
 
-    private boolean hasItemInInventory(int itemId)
+    Loadout getCurrentLoadout()
     {
-        ItemContainer inventory = client.getItemContainer(InventoryID.INVENTORY);
-        if (inventory == null)
-        {
-            return false;
-        }
+        return currentLoadout;
+    }
+
+    /**
+     * Runes carried, in the inventory and a carried rune pouch.
+     */
+    int getRuneTotal(Rune rune)
+    {
+        return snapshot.totalRunes(rune);
+    }
+
+    /**
+     * Casts the carried runes allow for an enabled loadout, or -1 if the
+     * loadout is disabled. {@link Integer#MAX_VALUE} means no rune limits it.
+     */
+    int getCastsRemaining(Loadout loadout)
+    {
+        int index = loadoutEvaluator.indexOf(loadout);
+        return index == -1 ? -1 : loadoutCasts[index];
+    }
 
-        return containsItem(inventory, itemId);
+    private void checkSpellbook()
+    {
+        spellbook = client.getVarbitValue(Varbits.SPELLBOOK);
     }
 
-    private boolean containsItem(ItemContainer container, int itemId)
+    private boolean refreshSnapshot()
     {
-        for (Item item : container.getItems())
+        boolean changed = containersDirty || runePouchDirty || suppliesChanged;
+        suppliesChanged = false;
+        if (containersDirty)
         {
-            if (item.getId() == itemId)
-            {
-                return true;
-            }
+            containersDirty = false;
+            snapshot.resetContainers();
+            snapshot.updateInventory(client.getItemContainer(InventoryID.INVENTORY));
+            snapshot.updateEquipment(client.getItemContainer(InventoryID.EQUIPMENT));
+        }
+
+        if (runePouchDirty)
+        {
+            runePouchDirty = false;
+            snapshot.runePouch.load(client);
         }
-        return false;
+        return changed;
     }
 
     private void showWarning()
@@ -489,20 +733,29 @@ public class BookOfTheDeadNotifierPlugin extends Plugin
         if (isFirstWarning)
         {
             warningShown = true;
+            updateOverlayAttachment();
             sendNotification();
         }
     }
 
     private void sendNotification()
     {
-        if (!config.notification().isEnabled())
+        Notification notification = configSnapshot.getNotification();
+        if (!notification.isEnabled())
         {
             return;
         }
 
-        String message = currentMissingCondition.getLongText();
-        String notificationMessage = "Thrall Reminder: " + message;
-        notifier.notify(config.notification(), notificationMessage);
+        int kind = currentMissingCondition.ordinal();
+        if (tickCounter < nextNotificationTick[kind])
+        {
+            return;
+        }
+        nextNotificationTick[kind] = tickCounter + configSnapshot.getNotificationCooldownTicks();
+
+        String message = currentLoadout.getLongText(currentMissingCondition);
+        String notificationMessage = currentLoadout.getName() + " Reminder: " + message;
+        notificationDispatcher.submit(currentMissingCondition, notification, notificationMessage);
     }
 
     private void hideWarning()
@@ -514,6 +767,36 @@ public class BookOfTheDeadNotifierPlugin extends Plugin
 
         warningShown = false;
         currentMissingCondition = MissingCondition.NONE;
+        updateOverlayAttachment();
+    }
+
+    /**
+     * Keeps the reminder overlay registered only while it has something to
+     * draw when the idle overlay is detached. Called on the client thread,
+     * which is where the warning state changes.
+     */
+    private void updateOverlayAttachment()
+    {
+        if (stopped)
+        {
+            return;
+        }
+
+        boolean attach = warningShown || !configSnapshot.isDetachIdleOverlay();
+        if (attach == overlayAttached)
+        {
+            return;
+        }
+
+        overlayAttached = attach;
+        if (attach)
+        {
+            overlayManager.add(overlay);
+        }
+        else
+        {
+            overlayManager.remove(overlay);
+        }
     }
 
     public boolean shouldShowWarning()
@@ -521,6 +804,50 @@ public class BookOfTheDeadNotifierPlugin extends Plugin
         return warningShown;
     }
 
+    ConfigSnapshot getConfigSnapshot()
+    {
+        return configSnapshot;
+    }
+
+    PerformanceStats getPerformanceStats()
+    {
+        return performanceStats;
+    }
+
+    private void updatePerformanceOverlay()
+    {
+        if (stopped)
+        {
+            return;
+        }
+
+        boolean enabled = configSnapshot.isShowPerformanceOverlay();
+        if (enabled == performanceOverlayShown)
+        {
+            return;
+        }
+
+        performanceOverlayShown = enabled;
+        if (enabled)
+        {
+            overlayManager.add(performanceOverlay);
+        }
+        else
+        {
+            overlayManager.remove(performanceOverlay);
+        }
+    }
+
+    private void logPerformanceStats()
+    {
+        log.info("Performance: {} events, {} evaluations run, {} ticks skipped",
+            performanceStats.eventsReceived, performanceStats.evaluationsRun, performanceStats.evaluationsSkipped);
+        for (LatencyHistogram histogram : performanceStats.getHistograms())
+        {
+            log.info("Performance: {}", PerformanceStats.formatSummary(histogram));
+        }
+    }
+
     @Provides
     BookOfTheDeadNotifierConfig provideConfig(ConfigManager configManager)
     {
@@ -0,0 +1,208 @@
+package com.bookofthedeadnotifier;
+
+import net.runelite.client.config.Notification;
+
+import java.util.BitSet;
+
+/**
+ * Immutable copy of the plugin configuration. Built once on startup and
+ * rebuilt on every config change, so evaluation and rendering never go
+ * through the config proxy or re-parse stored values.
+ */
+final class ConfigSnapshot
+{
+    private final BookOfTheDeadNotifierStyle reminderStyle;
+    private final Notification notification;
+    private final boolean notifyOnMissingBook;
+    private final boolean notifyOnMissingRunes;
+    private final boolean notifyOnWrongSpellbook;
+    private final int dwellTicks;
+    private final int notificationCooldownTicks;
+    private final int minFireRunes;
+    private final int minBloodRunes;
+    private final int minCosmicRunes;
+    private final int lowCastsThreshold;
+    private final int runeMargin;
+    private final TextTemplate customText;
+    private final FlashPalette flashPalette;
+    private final boolean cacheReminderImage;
+    private final boolean detachIdleOverlay;
+    private final boolean recordEvents;
+    private final boolean showPerformanceOverlay;
+    private final int enabledLoadouts;
+    private final boolean gateByActivity;
+    private final BitSet activeRegions;
+    private final int recentCombatTicks;
+
+    private ConfigSnapshot(BookOfTheDeadNotifierConfig config)
+    {
+        this.reminderStyle = config.reminderStyle();
+        this.notification = config.notification();
+        this.notifyOnMissingBook = config.notifyOnMissingBook();
+        this.notifyOnMissingRunes = config.notifyOnMissingRunes();
+        this.notifyOnWrongSpellbook = config.notifyOnWrongSpellbook();
+        this.dwellTicks = Math.max(0, config.dwellTicks());
+        this.notificationCooldownTicks = Math.max(0, config.notificationCooldownTicks());
+        this.minFireRunes = config.minFireRunes();
+        this.minBloodRunes = config.minBloodRunes();
+        this.minCosmicRunes = config.minCosmicRunes();
+        this.lowCastsThreshold = Math.max(0, config.lowCastsThreshold());
+        this.runeMargin = Math.max(0, config.runeMargin());
+        this.customText = TextTemplate.compile(config.customText());
+        this.flashPalette = config.flashReminderBox()
+            ? FlashPalette.build(config.reminderColor(), config.flashColor(), config.flashEasing(), config.flashPeriod())
+            : FlashPalette.solid(config.reminderColor());
+        this.cacheReminderImage = config.cacheReminderImage();
+        this.detachIdleOverlay = config.detachIdleOverlay();
+        this.recordEvents = config.recordEvents();
+        this.showPerformanceOverlay = config.showPerformanceOverlay();
+        this.enabledLoadouts = enabledLoadouts(config);
+        this.gateByActivity = config.gateByActivity();
+        this.activeRegions = ActivityGate.parseRegions(config.activeRegions());
+        this.recentCombatTicks = config.recentCombatTicks();
+    }
+
+    static ConfigSnapshot from(BookOfTheDeadNotifierConfig config)
+    {
+        return new ConfigSnapshot(config);
+    }
+
+    private static int enabledLoadouts(BookOfTheDeadNotifierConfig config)
+    {
+        int mask = 0;
+        if (config.remindThralls()) mask |= Loadout.THRALLS.mask();
+        if (config.remindDeathCharge()) mask |= Loadout.DEATH_CHARGE.mask();
+        if (config.remindMarkOfDarkness()) mask |= Loadout.MARK_OF_DARKNESS.mask();
+        if (config.remindVengeance()) mask |= Loadout.VENGEANCE.mask();
+        return mask;
+    }
+
+    BookOfTheDeadNotifierStyle getReminderStyle()
+    {
+        return reminderStyle;
+    }
+
+    Notification getNotification()
+    {
+        return notification;
+    }
+
+    boolean isNotifyOnMissingBook()
+    {
+        return notifyOnMissingBook;
+    }
+
+    boolean isNotifyOnMissingRunes()
+    {
+        return notifyOnMissingRunes;
+    }
+
+    boolean isNotifyOnWrongSpellbook()
+    {
+        return notifyOnWrongSpellbook;
+    }
+
+    /**
+     * Whether reminders for the condition are enabled.
+     */
+    boolean isNotifyEnabled(MissingCondition condition)
+    {
+        switch (condition)
+        {
+            case REQUIRED_ITEM:
+                return notifyOnMissingBook;
+            case RUNES:
+            case LOW_SUPPLY:
+                return notifyOnMissingRunes;
+            case SPELLBOOK:
+                return notifyOnWrongSpellbook;
+            default:
+                return false;
+        }
+    }
+
+    int getDwellTicks()
+    {
+        return dwellTicks;
+    }
+
+    int getNotificationCooldownTicks()
+    {
+        return notificationCooldownTicks;
+    }
+
+    int getMinFireRunes()
+    {
+        return minFireRunes;
+    }
+
+    int getMinBloodRunes()
+    {
+        return minBloodRunes;
+    }
+
+    int getMinCosmicRunes()
+    {
+        return minCosmicRunes;
+    }
+
+    int getLowCastsThreshold()
+    {
+        return lowCastsThreshold;
+    }
+
+    int getRuneMargin()
+    {
+        return runeMargin;
+    }
+
+    TextTemplate getCustomText()
+    {
+        return customText;
+    }
+
+    FlashPalette getFlashPalette()
+    {
+        return flashPalette;
+    }
+
+    boolean isCacheReminderImage()
+    {
+        return cacheReminderImage;
+    }
+
+    boolean isDetachIdleOverlay()
+    {
+        return detachIdleOverlay;
+    }
+
+    boolean isRecordEvents()
+    {
+        return recordEvents;
+    }
+
+    boolean isShowPerformanceOverlay()
+    {
+        return showPerformanceOverlay;
+    }
+
+    boolean isLoadoutEnabled(Loadout loadout)
+    {
+        return (enabledLoadouts & loadout.mask()) != 0;
+    }
+
+    boolean isGateByActivity()
+    {
+        return gateByActivity;
+    }
+
+    boolean isActiveRegion(int region)
+    {
+        return region >= 0 && activeRegions.get(region);
+    }
+
+    int getRecentCombatTicks()
+    {
+        return recentCombatTicks;
+    }
+}
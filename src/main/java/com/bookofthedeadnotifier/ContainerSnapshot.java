@@ -0,0 +1,219 @@
+package com.bookofthedeadnotifier;
+
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+
+import java.util.Arrays;
+
+/**
+ * Primitive summary of everything the loadout rules need from the
+ * inventory, equipment and rune pouch: a count per {@link Rune}, the runes
+ * provided without limit by equipped staves and tomes, and which tracked
+ * items are carried.
+ *
+ * <p>The last seen contents of the inventory and equipment are kept, so a
+ * container update only classifies the slots that changed and adjusts the
+ * counts by their difference.
+ */
+final class ContainerSnapshot
+{
+    final int[] runes = new int[Rune.COUNT];
+    int infiniteRunes;
+    int carriedItems;
+
+    // Pouch contents are tracked apart from the containers so either side can
+    // be refreshed on its own; they only count while a pouch is carried.
+    final RunePouchState runePouch = new RunePouchState();
+
+    // Equipped items providing each infinite rune, and carried copies of each
+    // tracked item, so removing one of two sources keeps the flag set.
+    private final int[] infiniteSources = new int[Rune.COUNT];
+    private int runePouches;
+    private int booksOfTheDead;
+
+    private final SlotCopy inventory = new SlotCopy();
+    private final SlotCopy equipment = new SlotCopy();
+
+    private static final class SlotCopy
+    {
+        private int[] ids = new int[0];
+        private int[] quantities = new int[0];
+        private int size;
+
+        private void ensureCapacity(int slots)
+        {
+            if (ids.length < slots)
+            {
+                int oldLength = ids.length;
+                ids = Arrays.copyOf(ids, slots);
+                quantities = Arrays.copyOf(quantities, slots);
+                Arrays.fill(ids, oldLength, slots, -1);
+            }
+        }
+
+        private void clear()
+        {
+            Arrays.fill(ids, -1);
+            Arrays.fill(quantities, 0);
+            size = 0;
+        }
+    }
+
+    int totalRunes(int rune)
+    {
+        return hasRunePouch() ? runes[rune] + runePouch.getTotal(rune) : runes[rune];
+    }
+
+    int totalRunes(Rune rune)
+    {
+        return totalRunes(rune.ordinal());
+    }
+
+    boolean hasInfinite(int rune)
+    {
+        return (infiniteRunes & (1 << rune)) != 0;
+    }
+
+    boolean hasRunePouch()
+    {
+        return (carriedItems & ItemClassification.RUNE_POUCH) != 0;
+    }
+
+    boolean hasBookOfTheDead()
+    {
+        return (carriedItems & ItemClassification.BOOK_OF_THE_DEAD) != 0;
+    }
+
+    void resetContainers()
+    {
+        Arrays.fill(runes, 0);
+        Arrays.fill(infiniteSources, 0);
+        infiniteRunes = 0;
+        carriedItems = 0;
+        runePouches = 0;
+        booksOfTheDead = 0;
+        inventory.clear();
+        equipment.clear();
+    }
+
+    /**
+     * Applies the new inventory contents.
+     *
+     * @return whether any tracked item changed
+     */
+    boolean updateInventory(ItemContainer container)
+    {
+        return container != null && update(inventory, container.getItems(), false);
+    }
+
+    /**
+     * Applies the new equipment contents.
+     *
+     * @return whether any tracked item changed
+     */
+    boolean updateEquipment(ItemContainer container)
+    {
+        return container != null && update(equipment, container.getItems(), true);
+    }
+
+    private boolean update(SlotCopy last, Item[] items, boolean equipped)
+    {
+        last.ensureCapacity(items.length);
+        int slots = Math.max(last.size, items.length);
+        boolean changed = false;
+        for (int slot = 0; slot < slots; slot++)
+        {
+            int id = -1;
+            int quantity = 0;
+            if (slot < items.length)
+            {
+                id = items[slot].getId();
+                quantity = items[slot].getQuantity();
+            }
+
+            int lastId = last.ids[slot];
+            int lastQuantity = last.quantities[slot];
+            if (id == lastId && quantity == lastQuantity)
+            {
+                continue;
+            }
+
+            last.ids[slot] = id;
+            last.quantities[slot] = quantity;
+            changed |= apply(lastId, -lastQuantity, -1, equipped);
+            changed |= apply(id, quantity, 1, equipped);
+        }
+        last.size = items.length;
+
+        if (changed)
+        {
+            updateFlags();
+        }
+        return changed;
+    }
+
+    /**
+     * Adds ({@code sign} 1) or removes ({@code sign} -1) one slot's item.
+     */
+    private boolean apply(int itemId, int quantity, int sign, boolean equipped)
+    {
+        int flags = ItemClassification.classify(itemId);
+        if (flags == 0)
+        {
+            return false;
+        }
+
+        if ((flags & ItemClassification.RUNE_POUCH) != 0)
+        {
+            runePouches += sign;
+        }
+        if ((flags & ItemClassification.BOOK_OF_THE_DEAD) != 0)
+        {
+            booksOfTheDead += sign;
+        }
+
+        if (equipped)
+        {
+            int infiniteBits = (flags & ItemClassification.INFINITE_MASK) >>> ItemClassification.INFINITE_SHIFT;
+            while (infiniteBits != 0)
+            {
+                infiniteSources[Integer.numberOfTrailingZeros(infiniteBits)] += sign;
+                infiniteBits &= infiniteBits - 1;
+            }
+        }
+        else
+        {
+            addRunes(runes, flags, quantity);
+        }
+        return true;
+    }
+
+    private void updateFlags()
+    {
+        int infinite = 0;
+        for (int rune = 0; rune < Rune.COUNT; rune++)
+        {
+            if (infiniteSources[rune] > 0)
+            {
+                infinite |= 1 << rune;
+            }
+        }
+        infiniteRunes = infinite;
+
+        int carried = 0;
+        if (runePouches > 0) carried |= ItemClassification.RUNE_POUCH;
+        if (booksOfTheDead > 0) carried |= ItemClassification.BOOK_OF_THE_DEAD;
+        carriedItems = carried;
+    }
+
+    private static void addRunes(int[] counts, int flags, int quantity)
+    {
+        int runeBits = flags & ItemClassification.RUNE_MASK;
+        while (runeBits != 0)
+        {
+            int rune = Integer.numberOfTrailingZeros(runeBits);
+            counts[rune] += quantity;
+            runeBits &= runeBits - 1;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.bookofthedeadnotifier;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.GameState;
+import net.runelite.api.Item;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Writes the events the plugin receives to a compact binary log so a
+ * session can be replayed offline.
+ *
+ * <p>The log starts with {@link #MAGIC} and {@link #VERSION}, followed by
+ * records of a type byte and the client tick count, then the payload:
+ * <ul>
+ *     <li>{@link #VARBIT}: varbit id, value</li>
+ *     <li>{@link #CONTAINER}: container id, slot count, then item id and quantity per slot</li>
+ *     <li>{@link #GAME_TICK}: no payload</li>
+ *     <li>{@link #CONFIG}: key, presence flag, value</li>
+ *     <li>{@link #GAME_STATE}: game state name</li>
+ * </ul>
+ */
+@Slf4j
+final class EventRecorder
+{
+    static final int MAGIC = 0x424F5444; // "BOTD"
+    static final int VERSION = 2;
+
+    static final byte VARBIT = 1;
+    static final byte CONTAINER = 2;
+    static final byte GAME_TICK = 3;
+    static final byte CONFIG = 4;
+    static final byte GAME_STATE = 5;
+
+    private final File file;
+    private final DataOutputStream out;
+    private boolean failed = false;
+
+    private EventRecorder(File file, DataOutputStream out)
+    {
+        this.file = file;
+        this.out = out;
+    }
+
+    static EventRecorder open(File file) throws IOException
+    {
+        File directory = file.getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs())
+        {
+            throw new IOException("Unable to create " + directory);
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        return new EventRecorder(file, out);
+    }
+
+    File getFile()
+    {
+        return file;
+    }
+
+    void recordVarbit(int tick, int varbitId, int value)
+    {
+        if (failed)
+        {
+            return;
+        }
+
+        try
+        {
+            out.writeByte(VARBIT);
+            out.writeInt(tick);
+            out.writeInt(varbitId);
+            out.writeInt(value);
+        }
+        catch (IOException e)
+        {
+            fail(e);
+        }
+    }
+
+    void recordContainer(int tick, int containerId, Item[] items)
+    {
+        if (failed)
+        {
+            return;
+        }
+
+        try
+        {
+            out.writeByte(CONTAINER);
+            out.writeInt(tick);
+            out.writeInt(containerId);
+            out.writeShort(items.length);
+            for (Item item : items)
+            {
+                out.writeInt(item.getId());
+                out.writeInt(item.getQuantity());
+            }
+        }
+        catch (IOException e)
+        {
+            fail(e);
+        }
+    }
+
+    void recordGameTick(int tick)
+    {
+        if (failed)
+        {
+            return;
+        }
+
+        try
+        {
+            out.writeByte(GAME_TICK);
+            out.writeInt(tick);
+        }
+        catch (IOException e)
+        {
+            fail(e);
+        }
+    }
+
+    void recordConfig(int tick, String key, String value)
+    {
+        if (failed)
+        {
+            return;
+        }
+
+        try
+        {
+            out.writeByte(CONFIG);
+            out.writeInt(tick);
+            out.writeUTF(key);
+            out.writeBoolean(value != null);
+            if (value != null)
+            {
+                out.writeUTF(value);
+            }
+        }
+        catch (IOException e)
+        {
+            fail(e);
+        }
+    }
+
+    void recordGameState(int tick, GameState gameState)
+    {
+        if (failed)
+        {
+            return;
+        }
+
+        try
+        {
+            out.writeByte(GAME_STATE);
+            out.writeInt(tick);
+            out.writeUTF(gameState.name());
+        }
+        catch (IOException e)
+        {
+            fail(e);
+        }
+    }
+
+    void close()
+    {
+        try
+        {
+            out.close();
+        }
+        catch (IOException e)
+        {
+            log.warn("Unable to close event log {}", file, e);
+        }
+    }
+
+    private void fail(IOException e)
+    {
+        failed = true;
+        log.warn("Stopped recording events to {}", file, e);
+    }
+}
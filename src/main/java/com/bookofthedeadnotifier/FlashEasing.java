@@ -0,0 +1,32 @@
+package com.bookofthedeadnotifier;
+
+/**
+ * How the reminder box moves between its color and the flash color over
+ * one flash period.
+ */
+public enum FlashEasing
+{
+    BLINK,
+    LINEAR,
+    SMOOTH;
+
+    /**
+     * Share of the flash color at a point in the period.
+     *
+     * @param phase position in the period, from 0 inclusive to 1 exclusive
+     * @return 0 for the reminder color through 1 for the flash color
+     */
+    double apply(double phase)
+    {
+        switch (this)
+        {
+            case LINEAR:
+                return phase < 0.5 ? 2 * phase : 2 - 2 * phase;
+            case SMOOTH:
+                return (1 - Math.cos(2 * Math.PI * phase)) / 2;
+            case BLINK:
+            default:
+                return phase >= 0.5 ? 1 : 0;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.bookofthedeadnotifier;
+
+import java.awt.Color;
+
+/**
+ * Background color of the reminder box for every game cycle of one flash
+ * period, interpolated once when the settings change. A frame only looks
+ * its color up, without allocating or reading config.
+ *
+ * <p>Blends are rounded to {@link #STEPS} levels and each level is a
+ * single shared {@link Color}, so an animation never shows more than
+ * {@code STEPS + 1} distinct colors, however long its period.
+ */
+final class FlashPalette
+{
+    static final int STEPS = 16;
+
+    // A game cycle is 20 ms.
+    private static final int CYCLE_MILLIS = 20;
+
+    private final Color[] frames;
+
+    private FlashPalette(Color[] frames)
+    {
+        this.frames = frames;
+    }
+
+    /**
+     * A palette showing only the reminder color.
+     */
+    static FlashPalette solid(Color color)
+    {
+        return new FlashPalette(new Color[]{color});
+    }
+
+    static FlashPalette build(Color color, Color flashColor, FlashEasing easing, int periodMillis)
+    {
+        Color[] levels = new Color[STEPS + 1];
+        for (int level = 0; level <= STEPS; level++)
+        {
+            levels[level] = blend(color, flashColor, (double) level / STEPS);
+        }
+
+        int period = Math.max(2, periodMillis / CYCLE_MILLIS);
+        Color[] frames = new Color[period];
+        for (int cycle = 0; cycle < period; cycle++)
+        {
+            double amount = easing.apply((double) cycle / period);
+            frames[cycle] = levels[(int) Math.round(amount * STEPS)];
+        }
+        return new FlashPalette(frames);
+    }
+
+    private static Color blend(Color from, Color to, double amount)
+    {
+        return new Color(
+            mix(from.getRed(), to.getRed(), amount),
+            mix(from.getGreen(), to.getGreen(), amount),
+            mix(from.getBlue(), to.getBlue(), amount),
+            mix(from.getAlpha(), to.getAlpha(), amount));
+    }
+
+    private static int mix(int from, int to, double amount)
+    {
+        return (int) Math.round(from + (to - from) * amount);
+    }
+
+    boolean isAnimated()
+    {
+        return frames.length > 1;
+    }
+
+    Color colorAt(int gameCycle)
+    {
+        return frames[Math.floorMod(gameCycle, frames.length)];
+    }
+}
@@ -0,0 +1,163 @@
+package com.bookofthedeadnotifier;
+
+import net.runelite.api.ItemID;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed table of every item the plugin cares about, keyed by item id.
+ * A single lookup tells which runes an item provides and how (counted runes,
+ * combination runes or an infinite source such as a staff or tome), and
+ * whether it is a rune pouch or the Book of the Dead.
+ */
+final class ItemClassification
+{
+    // The low bits are the counted runes an item provides, one bit per Rune.
+    // Combination runes set several bits.
+    static final int RUNE_MASK = (1 << Rune.COUNT) - 1;
+
+    // Elemental runes provided without limit while the item is equipped.
+    static final int INFINITE_SHIFT = 16;
+    static final int INFINITE_MASK = elementalBits() << INFINITE_SHIFT;
+
+    static final int RUNE_POUCH = 1 << 24;
+    static final int BOOK_OF_THE_DEAD = 1 << 25;
+
+    // Open-addressing map from item id to flags; sized well above the entry
+    // count so lookups almost always hit on the first probe.
+    private static final int CAPACITY = 256;
+    private static final int EMPTY = -1;
+    private static final int[] KEYS = new int[CAPACITY];
+    private static final int[] FLAGS = new int[CAPACITY];
+
+    static
+    {
+        Arrays.fill(KEYS, EMPTY);
+
+        runes(ItemID.AIR_RUNE, Rune.AIR);
+        runes(ItemID.WATER_RUNE, Rune.WATER);
+        runes(ItemID.EARTH_RUNE, Rune.EARTH);
+        runes(ItemID.FIRE_RUNE, Rune.FIRE);
+        runes(ItemID.SUNFIRE_RUNE, Rune.FIRE);
+        runes(ItemID.MIND_RUNE, Rune.MIND);
+        runes(ItemID.CHAOS_RUNE, Rune.CHAOS);
+        runes(ItemID.DEATH_RUNE, Rune.DEATH);
+        runes(ItemID.BLOOD_RUNE, Rune.BLOOD);
+        runes(ItemID.COSMIC_RUNE, Rune.COSMIC);
+        runes(ItemID.NATURE_RUNE, Rune.NATURE);
+        runes(ItemID.LAW_RUNE, Rune.LAW);
+        runes(ItemID.BODY_RUNE, Rune.BODY);
+        runes(ItemID.SOUL_RUNE, Rune.SOUL);
+        runes(ItemID.ASTRAL_RUNE, Rune.ASTRAL);
+        runes(ItemID.WRATH_RUNE, Rune.WRATH);
+
+        runes(ItemID.MIST_RUNE, Rune.AIR, Rune.WATER);
+        runes(ItemID.DUST_RUNE, Rune.AIR, Rune.EARTH);
+        runes(ItemID.MUD_RUNE, Rune.WATER, Rune.EARTH);
+        runes(ItemID.SMOKE_RUNE, Rune.AIR, Rune.FIRE);
+        runes(ItemID.STEAM_RUNE, Rune.WATER, Rune.FIRE);
+        runes(ItemID.LAVA_RUNE, Rune.EARTH, Rune.FIRE);
+        runes(ItemID.AETHER_RUNE, Rune.SOUL, Rune.COSMIC);
+
+        infinite(ItemID.STAFF_OF_AIR, Rune.AIR);
+        infinite(ItemID.AIR_BATTLESTAFF, Rune.AIR);
+        infinite(ItemID.MYSTIC_AIR_STAFF, Rune.AIR);
+        infinite(ItemID.STAFF_OF_WATER, Rune.WATER);
+        infinite(ItemID.WATER_BATTLESTAFF, Rune.WATER);
+        infinite(ItemID.MYSTIC_WATER_STAFF, Rune.WATER);
+        infinite(ItemID.KODAI_WAND, Rune.WATER);
+        infinite(ItemID.TOME_OF_WATER, Rune.WATER);
+        infinite(ItemID.STAFF_OF_EARTH, Rune.EARTH);
+        infinite(ItemID.EARTH_BATTLESTAFF, Rune.EARTH);
+        infinite(ItemID.MYSTIC_EARTH_STAFF, Rune.EARTH);
+        infinite(ItemID.TOME_OF_EARTH, Rune.EARTH);
+        infinite(ItemID.STAFF_OF_FIRE, Rune.FIRE);
+        infinite(ItemID.FIRE_BATTLESTAFF, Rune.FIRE);
+        infinite(ItemID.MYSTIC_FIRE_STAFF, Rune.FIRE);
+        infinite(ItemID.TOME_OF_FIRE, Rune.FIRE);
+
+        infinite(ItemID.MIST_BATTLESTAFF, Rune.AIR, Rune.WATER);
+        infinite(ItemID.MYSTIC_MIST_STAFF, Rune.AIR, Rune.WATER);
+        infinite(ItemID.DUST_BATTLESTAFF, Rune.AIR, Rune.EARTH);
+        infinite(ItemID.MYSTIC_DUST_STAFF, Rune.AIR, Rune.EARTH);
+        infinite(ItemID.MUD_BATTLESTAFF, Rune.WATER, Rune.EARTH);
+        infinite(ItemID.MYSTIC_MUD_STAFF, Rune.WATER, Rune.EARTH);
+        infinite(ItemID.SMOKE_BATTLESTAFF, Rune.AIR, Rune.FIRE);
+        infinite(ItemID.MYSTIC_SMOKE_STAFF, Rune.AIR, Rune.FIRE);
+        infinite(ItemID.STEAM_BATTLESTAFF, Rune.WATER, Rune.FIRE);
+        infinite(ItemID.MYSTIC_STEAM_STAFF, Rune.WATER, Rune.FIRE);
+        infinite(ItemID.LAVA_BATTLESTAFF, Rune.EARTH, Rune.FIRE);
+        infinite(ItemID.MYSTIC_LAVA_STAFF, Rune.EARTH, Rune.FIRE);
+        infinite(ItemID.TWINFLAME_STAFF, Rune.WATER, Rune.FIRE);
+
+        put(ItemID.RUNE_POUCH, RUNE_POUCH);
+        put(ItemID.RUNE_POUCH_L, RUNE_POUCH);
+        put(ItemID.DIVINE_RUNE_POUCH, RUNE_POUCH);
+        put(ItemID.DIVINE_RUNE_POUCH_L, RUNE_POUCH);
+
+        put(ItemID.BOOK_OF_THE_DEAD, BOOK_OF_THE_DEAD);
+    }
+
+    private ItemClassification()
+    {
+    }
+
+    static int classify(int itemId)
+    {
+        int index = indexFor(itemId);
+        while (true)
+        {
+            int key = KEYS[index];
+            if (key == itemId)
+            {
+                return FLAGS[index];
+            }
+            if (key == EMPTY)
+            {
+                return 0;
+            }
+            index = (index + 1) & (CAPACITY - 1);
+        }
+    }
+
+    private static int elementalBits()
+    {
+        return Rune.AIR.bit() | Rune.WATER.bit() | Rune.EARTH.bit() | Rune.FIRE.bit();
+    }
+
+    private static void runes(int itemId, Rune... runes)
+    {
+        int flags = 0;
+        for (Rune rune : runes)
+        {
+            flags |= rune.bit();
+        }
+        put(itemId, flags);
+    }
+
+    private static void infinite(int itemId, Rune... runes)
+    {
+        int flags = 0;
+        for (Rune rune : runes)
+        {
+            flags |= rune.bit() << INFINITE_SHIFT;
+        }
+        put(itemId, flags);
+    }
+
+    private static void put(int itemId, int flags)
+    {
+        int index = indexFor(itemId);
+        while (KEYS[index] != EMPTY && KEYS[index] != itemId)
+        {
+            index = (index + 1) & (CAPACITY - 1);
+        }
+        KEYS[index] = itemId;
+        FLAGS[index] = flags;
+    }
+
+    private static int indexFor(int itemId)
+    {
+        return (itemId * 0x9E3779B9 >>> 16) & (CAPACITY - 1);
+    }
+}
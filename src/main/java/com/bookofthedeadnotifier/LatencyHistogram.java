@@ -0,0 +1,114 @@
+package com.bookofthedeadnotifier;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-bucket latency histogram in nanoseconds. Values below 16 ns get a
+ * bucket each; above that every power of two is split into eight buckets,
+ * so percentiles are accurate to within 12.5%. Recording never allocates.
+ */
+final class LatencyHistogram
+{
+    private static final int LINEAR_BUCKETS = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int FIRST_EXPONENT = 4;
+    private static final int BUCKETS = LINEAR_BUCKETS + (64 - FIRST_EXPONENT) * SUB_BUCKETS;
+
+    private final String name;
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long max;
+
+    LatencyHistogram(String name)
+    {
+        this.name = name;
+    }
+
+    String getName()
+    {
+        return name;
+    }
+
+    void record(long nanos)
+    {
+        if (nanos < 0)
+        {
+            nanos = 0;
+        }
+
+        counts[bucketFor(nanos)]++;
+        count++;
+        if (nanos > max)
+        {
+            max = nanos;
+        }
+    }
+
+    long getCount()
+    {
+        return count;
+    }
+
+    long getMax()
+    {
+        return max;
+    }
+
+    /**
+     * Upper bound of the bucket holding the given percentile, capped at the
+     * largest recorded value.
+     */
+    long getPercentile(double percentile)
+    {
+        if (count == 0)
+        {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++)
+        {
+            seen += counts[bucket];
+            if (seen >= target)
+            {
+                return Math.min(upperBoundOf(bucket), max);
+            }
+        }
+        return max;
+    }
+
+    void reset()
+    {
+        Arrays.fill(counts, 0);
+        count = 0;
+        max = 0;
+    }
+
+    private static int bucketFor(long nanos)
+    {
+        if (nanos < LINEAR_BUCKETS)
+        {
+            return (int) nanos;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_BUCKETS + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundOf(int bucket)
+    {
+        if (bucket < LINEAR_BUCKETS)
+        {
+            return bucket;
+        }
+
+        int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + FIRST_EXPONENT;
+        int subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lowerBound = (SUB_BUCKETS + subBucket) * width;
+        return lowerBound + width - 1;
+    }
+}
@@ -0,0 +1,139 @@
+package com.bookofthedeadnotifier;
+
+/**
+ * A spell the plugin can remind about, declared as the spellbook it is cast
+ * from, the runes one cast costs and an optional item that must be carried,
+ * with its long and short reminder texts. Enabled loadouts are compiled
+ * into a {@link LoadoutEvaluator}.
+ *
+ * <p>The runes required to count as ready default to the cost of one cast;
+ * thralls require the configured thresholds instead.
+ */
+enum Loadout
+{
+    THRALLS("Thrall", "thrall", Spellbook.ARCEUUS,
+        // Greater thralls, the most expensive of the three tiers
+        new Rune[] {Rune.FIRE, Rune.BLOOD, Rune.COSMIC}, new int[] {5, 1, 1},
+        ItemClassification.BOOK_OF_THE_DEAD, "Missing Book of the Dead", "Book!")
+    {
+        @Override
+        int[] getRuneCosts(ConfigSnapshot settings)
+        {
+            int[] costs = new int[Rune.COUNT];
+            costs[Rune.FIRE.ordinal()] = settings.getMinFireRunes();
+            costs[Rune.BLOOD.ordinal()] = settings.getMinBloodRunes();
+            costs[Rune.COSMIC.ordinal()] = settings.getMinCosmicRunes();
+            return costs;
+        }
+    },
+    DEATH_CHARGE("Death Charge", "Death Charge", Spellbook.ARCEUUS,
+        new Rune[] {Rune.DEATH, Rune.BLOOD, Rune.SOUL}, new int[] {1, 1, 1},
+        0, null, null),
+    MARK_OF_DARKNESS("Mark of Darkness", "Mark of Darkness", Spellbook.ARCEUUS,
+        new Rune[] {Rune.COSMIC, Rune.SOUL}, new int[] {1, 1},
+        0, null, null),
+    VENGEANCE("Vengeance", "Vengeance", Spellbook.LUNAR,
+        new Rune[] {Rune.DEATH, Rune.ASTRAL, Rune.EARTH}, new int[] {2, 4, 10},
+        0, null, null);
+
+    private final String name;
+    private final Spellbook spellbook;
+    private final int[] castCosts = new int[Rune.COUNT];
+    private final int requiredItem;
+    private final String missingItemText;
+    private final String missingItemShortText;
+    private final String missingSpellbookText;
+    private final String missingRunesText;
+    private final String lowRunesText;
+
+    Loadout(String name, String runesName, Spellbook spellbook, Rune[] runes, int[] amounts,
+        int requiredItem, String missingItemText, String missingItemShortText)
+    {
+        this.name = name;
+        this.spellbook = spellbook;
+        for (int i = 0; i < runes.length; i++)
+        {
+            castCosts[runes[i].ordinal()] = amounts[i];
+        }
+        this.requiredItem = requiredItem;
+        this.missingItemText = missingItemText;
+        this.missingItemShortText = missingItemShortText;
+        this.missingSpellbookText = "Not on " + spellbook.getName() + " spellbook";
+        this.missingRunesText = "Missing " + runesName + " runes";
+        this.lowRunesText = "Low on " + runesName + " runes";
+    }
+
+    int mask()
+    {
+        return 1 << ordinal();
+    }
+
+    String getName()
+    {
+        return name;
+    }
+
+    Spellbook getSpellbook()
+    {
+        return spellbook;
+    }
+
+    /**
+     * Runes needed to count as ready, indexed by {@link Rune} ordinal.
+     */
+    int[] getRuneCosts(ConfigSnapshot settings)
+    {
+        return castCosts.clone();
+    }
+
+    /**
+     * Runes one cast uses, indexed by {@link Rune} ordinal.
+     */
+    int[] getCastCosts()
+    {
+        return castCosts.clone();
+    }
+
+    /**
+     * The {@link ItemClassification} flag of the item that must be carried,
+     * or 0 if there is none.
+     */
+    int getRequiredItem()
+    {
+        return requiredItem;
+    }
+
+    String getLongText(MissingCondition condition)
+    {
+        switch (condition)
+        {
+            case REQUIRED_ITEM:
+                return missingItemText;
+            case SPELLBOOK:
+                return missingSpellbookText;
+            case RUNES:
+                return missingRunesText;
+            case LOW_SUPPLY:
+                return lowRunesText;
+            default:
+                return "";
+        }
+    }
+
+    String getShortText(MissingCondition condition)
+    {
+        switch (condition)
+        {
+            case REQUIRED_ITEM:
+                return missingItemShortText;
+            case SPELLBOOK:
+                return "Spellbook!";
+            case RUNES:
+                return "Runes!";
+            case LOW_SUPPLY:
+                return "Low runes!";
+            default:
+                return "";
+        }
+    }
+}
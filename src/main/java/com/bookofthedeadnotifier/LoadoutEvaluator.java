@@ -0,0 +1,218 @@
+package com.bookofthedeadnotifier;
+
+/**
+ * The enabled {@link Loadout}s flattened into parallel arrays, so every
+ * loadout is checked against one {@link ContainerSnapshot} in a single pass
+ * without touching the config or allocating. Compiled again whenever the
+ * configuration changes.
+ */
+final class LoadoutEvaluator
+{
+    private final Loadout[] loadouts;
+    private final int[] spellbooks;
+    private final int[] requiredItems;
+    private final int[] requirementCounts;
+
+    // Rune costs of loadout i are costRunes/costAmounts[costStart[i] .. costStart[i + 1]).
+    private final int[] costStart;
+    private final int[] costRunes;
+    private final int[] costAmounts;
+
+    // Per-cast costs, laid out the same way.
+    private final int[] castStart;
+    private final int[] castRunes;
+    private final int[] castAmounts;
+
+    // Extra runes needed to clear a rune shortage once it has been reported.
+    private final int runeMargin;
+
+    private LoadoutEvaluator(Loadout[] loadouts, int[] spellbooks, int[] requiredItems, int[] requirementCounts,
+        int[] costStart, int[] costRunes, int[] costAmounts, int[] castStart, int[] castRunes, int[] castAmounts,
+        int runeMargin)
+    {
+        this.loadouts = loadouts;
+        this.spellbooks = spellbooks;
+        this.requiredItems = requiredItems;
+        this.requirementCounts = requirementCounts;
+        this.costStart = costStart;
+        this.costRunes = costRunes;
+        this.costAmounts = costAmounts;
+        this.castStart = castStart;
+        this.castRunes = castRunes;
+        this.castAmounts = castAmounts;
+        this.runeMargin = runeMargin;
+    }
+
+    static LoadoutEvaluator compile(ConfigSnapshot settings)
+    {
+        int count = 0;
+        for (Loadout loadout : Loadout.values())
+        {
+            if (settings.isLoadoutEnabled(loadout))
+            {
+                count++;
+            }
+        }
+
+        Loadout[] loadouts = new Loadout[count];
+        int[] spellbooks = new int[count];
+        int[] requiredItems = new int[count];
+        int[] requirementCounts = new int[count];
+        int[] costStart = new int[count + 1];
+        int[] costRunes = new int[count * Rune.COUNT];
+        int[] costAmounts = new int[count * Rune.COUNT];
+        int[] castStart = new int[count + 1];
+        int[] castRunes = new int[count * Rune.COUNT];
+        int[] castAmounts = new int[count * Rune.COUNT];
+
+        int index = 0;
+        int costs = 0;
+        int casts = 0;
+        for (Loadout loadout : Loadout.values())
+        {
+            if (!settings.isLoadoutEnabled(loadout))
+            {
+                continue;
+            }
+
+            loadouts[index] = loadout;
+            spellbooks[index] = loadout.getSpellbook().getVarbitValue();
+            requiredItems[index] = loadout.getRequiredItem();
+            costStart[index] = costs;
+
+            castStart[index] = casts;
+
+            int[] runeCosts = loadout.getRuneCosts(settings);
+            int[] castCosts = loadout.getCastCosts();
+            for (int rune = 0; rune < Rune.COUNT; rune++)
+            {
+                if (runeCosts[rune] > 0)
+                {
+                    costRunes[costs] = rune;
+                    costAmounts[costs] = runeCosts[rune];
+                    costs++;
+                }
+                if (castCosts[rune] > 0)
+                {
+                    castRunes[casts] = rune;
+                    castAmounts[casts] = castCosts[rune];
+                    casts++;
+                }
+            }
+
+            int requirements = 1;
+            if (requiredItems[index] != 0) requirements++;
+            if (costs > costStart[index]) requirements++;
+            requirementCounts[index] = requirements;
+            index++;
+        }
+        costStart[count] = costs;
+        castStart[count] = casts;
+
+        return new LoadoutEvaluator(loadouts, spellbooks, requiredItems, requirementCounts,
+            costStart, costRunes, costAmounts, castStart, castRunes, castAmounts, settings.getRuneMargin());
+    }
+
+    int size()
+    {
+        return loadouts.length;
+    }
+
+    Loadout getLoadout(int index)
+    {
+        return loadouts[index];
+    }
+
+    int getRequirementCount(int index)
+    {
+        return requirementCounts[index];
+    }
+
+    int indexOf(Loadout loadout)
+    {
+        for (int i = 0; i < loadouts.length; i++)
+        {
+            if (loadouts[i] == loadout)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Writes the {@link MissingCondition} mask of every compiled loadout
+     * into {@code missing}, in loadout order. The loadout at
+     * {@code shortageIndex}, if any, is currently reported as missing runes
+     * and needs the rune margin on top of its costs to clear.
+     */
+    void evaluate(ContainerSnapshot snapshot, int spellbook, int shortageIndex, int[] missing)
+    {
+        int runesMissing = MissingCondition.RUNES.mask();
+        for (int i = 0; i < loadouts.length; i++)
+        {
+            int margin = i == shortageIndex ? runeMargin : 0;
+            int mask = 0;
+            if (spellbooks[i] != spellbook)
+            {
+                mask |= MissingCondition.SPELLBOOK.mask();
+            }
+            if (requiredItems[i] != 0 && (snapshot.carriedItems & requiredItems[i]) == 0)
+            {
+                mask |= MissingCondition.REQUIRED_ITEM.mask();
+            }
+            for (int c = costStart[i]; c < costStart[i + 1]; c++)
+            {
+                int rune = costRunes[c];
+                if (!snapshot.hasInfinite(rune) && snapshot.totalRunes(rune) < costAmounts[c] + margin)
+                {
+                    mask |= runesMissing;
+                    break;
+                }
+            }
+            missing[i] = mask;
+        }
+    }
+
+    /**
+     * The reminder the loadout at {@code index} calls for: {@code LOW_SUPPLY}
+     * when it is ready but allows fewer than {@code lowCastsThreshold} casts,
+     * the missing requirement when exactly one of at least two is missing,
+     * otherwise {@code NONE}.
+     */
+    MissingCondition getReminder(int index, int missing, int casts, int lowCastsThreshold)
+    {
+        if (missing == 0)
+        {
+            return casts < lowCastsThreshold ? MissingCondition.LOW_SUPPLY : MissingCondition.NONE;
+        }
+        if (Integer.bitCount(missing) == 1 && requirementCounts[index] >= 2)
+        {
+            return MissingCondition.fromMask(missing);
+        }
+        return MissingCondition.NONE;
+    }
+
+    /**
+     * Writes the number of casts the carried runes allow for every compiled
+     * loadout into {@code casts}, limited by the scarcest rune. Runes from an
+     * infinite source never limit; a loadout with no limiting rune gets
+     * {@link Integer#MAX_VALUE}.
+     */
+    void countCasts(ContainerSnapshot snapshot, int[] casts)
+    {
+        for (int i = 0; i < loadouts.length; i++)
+        {
+            int remaining = Integer.MAX_VALUE;
+            for (int c = castStart[i]; c < castStart[i + 1]; c++)
+            {
+                int rune = castRunes[c];
+                if (!snapshot.hasInfinite(rune))
+                {
+                    remaining = Math.min(remaining, snapshot.totalRunes(rune) / castAmounts[c]);
+                }
+            }
+            casts[i] = remaining;
+        }
+    }
+}
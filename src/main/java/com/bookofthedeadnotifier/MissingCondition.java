@@ -1,28 +1,37 @@
 package com.bookofthedeadnotifier;
 
+/**
+ * The kind of requirement a loadout is missing, or {@link #LOW_SUPPLY} when
+ * nothing is missing but few casts remain. The text shown for it depends on
+ * the loadout, see {@link Loadout#getLongText(MissingCondition)}.
+ */
 public enum MissingCondition
 {
-    BOOK_OF_THE_DEAD("Missing Book of the Dead", "Book!"),
-    ARCEUUS_SPELLBOOK("Not on Arceuus spellbook", "Spellbook!"),
-    THRALL_RUNES("Missing thrall runes", "Runes!"),
-    NONE("", "");
+    REQUIRED_ITEM,
+    SPELLBOOK,
+    RUNES,
+    LOW_SUPPLY,
+    NONE;
 
-    private final String longText;
-    private final String shortText;
-
-    MissingCondition(String longText, String shortText)
-    {
-        this.longText = longText;
-        this.shortText = shortText;
-    }
-
-    public String getLongText()
+    int mask()
     {
-        return longText;
+        return 1 << ordinal();
     }
 
-    public String getShortText()
+    static MissingCondition fromMask(int mask)
     {
-        return shortText;
+        if ((mask & REQUIRED_ITEM.mask()) != 0)
+        {
+            return REQUIRED_ITEM;
+        }
+        if ((mask & SPELLBOOK.mask()) != 0)
+        {
+            return SPELLBOOK;
+        }
+        if ((mask & RUNES.mask()) != 0)
+        {
+            return RUNES;
+        }
+        return NONE;
     }
 }
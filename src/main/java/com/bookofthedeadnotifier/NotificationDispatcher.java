@@ -0,0 +1,99 @@
+package com.bookofthedeadnotifier;
+
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.config.Notification;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Delivers notifications on a later client thread cycle rather than in the
+ * middle of the event that raised them.
+ *
+ * <p>Only the latest notification of each kind is kept while one of that
+ * kind is still waiting, so a burst of state changes sends one
+ * notification. Once shut down, new and waiting notifications are dropped.
+ */
+@Slf4j
+final class NotificationDispatcher
+{
+    private static final int KINDS = MissingCondition.values().length;
+
+    private final NotificationSink sink;
+    private final Executor executor;
+
+    // Latest undelivered notification per kind; guarded by this.
+    private final Notification[] pendingNotifications = new Notification[KINDS];
+    private final String[] pendingMessages = new String[KINDS];
+    private boolean shutdown = false;
+
+    NotificationDispatcher(NotificationSink sink, Executor executor)
+    {
+        this.sink = sink;
+        this.executor = executor;
+    }
+
+    static NotificationDispatcher create(NotificationSink sink, ClientThread clientThread)
+    {
+        return new NotificationDispatcher(sink, clientThread::invokeLater);
+    }
+
+    void submit(MissingCondition kind, Notification notification, String message)
+    {
+        int index = kind.ordinal();
+        synchronized (this)
+        {
+            if (shutdown)
+            {
+                return;
+            }
+
+            boolean alreadyQueued = pendingMessages[index] != null;
+            pendingNotifications[index] = notification;
+            pendingMessages[index] = message;
+            if (alreadyQueued)
+            {
+                return;
+            }
+        }
+
+        executor.execute(() -> deliver(index));
+    }
+
+    synchronized void shutdown()
+    {
+        shutdown = true;
+        for (int i = 0; i < KINDS; i++)
+        {
+            pendingNotifications[i] = null;
+            pendingMessages[i] = null;
+        }
+    }
+
+    private void deliver(int index)
+    {
+        Notification notification;
+        String message;
+        synchronized (this)
+        {
+            notification = pendingNotifications[index];
+            message = pendingMessages[index];
+            pendingNotifications[index] = null;
+            pendingMessages[index] = null;
+        }
+
+        if (message == null)
+        {
+            return;
+        }
+
+        try
+        {
+            sink.send(notification, message);
+        }
+        catch (RuntimeException e)
+        {
+            log.warn("Unable to send notification", e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.bookofthedeadnotifier;
+
+import net.runelite.client.config.Notification;
+
+/**
+ * Where {@link NotificationDispatcher} delivers notifications, normally the
+ * RuneLite {@code Notifier}.
+ */
+interface NotificationSink
+{
+    void send(Notification notification, String message);
+}
@@ -0,0 +1,57 @@
+package com.bookofthedeadnotifier;
+
+import net.runelite.client.ui.overlay.OverlayPanel;
+import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.ui.overlay.components.LineComponent;
+
+import javax.inject.Inject;
+import java.awt.*;
+
+/**
+ * Developer overlay listing the plugin's event, evaluation and render
+ * timings. Only registered while enabled in the config.
+ */
+public class PerformanceOverlay extends OverlayPanel
+{
+    private final BookOfTheDeadNotifierPlugin plugin;
+
+    @Inject
+    private PerformanceOverlay(BookOfTheDeadNotifierPlugin plugin)
+    {
+        this.plugin = plugin;
+        setPosition(OverlayPosition.TOP_LEFT);
+    }
+
+    @Override
+    public Dimension render(Graphics2D graphics)
+    {
+        PerformanceStats stats = plugin.getPerformanceStats();
+
+        panelComponent.getChildren().add(LineComponent.builder()
+            .left("Thrall reminder")
+            .right("p50 / p99 / max")
+            .build());
+
+        for (LatencyHistogram histogram : stats.getHistograms())
+        {
+            panelComponent.getChildren().add(LineComponent.builder()
+                .left(histogram.getName())
+                .right(PerformanceStats.formatNanos(histogram.getPercentile(50))
+                    + " / " + PerformanceStats.formatNanos(histogram.getPercentile(99))
+                    + " / " + PerformanceStats.formatNanos(histogram.getMax()))
+                .build());
+        }
+
+        panelComponent.getChildren().add(LineComponent.builder()
+            .left("Events")
+            .right(Long.toString(stats.eventsReceived))
+            .build());
+        panelComponent.getChildren().add(LineComponent.builder()
+            .left("Evaluations run / skipped")
+            .right(stats.evaluationsRun + " / " + stats.evaluationsSkipped)
+            .build());
+
+        panelComponent.setPreferredSize(new Dimension(260, 0));
+        return super.render(graphics);
+    }
+}
@@ -0,0 +1,63 @@
+package com.bookofthedeadnotifier;
+
+/**
+ * Timings and counters for the plugin's event handlers, evaluation and
+ * overlay rendering, used to show what the plugin costs per frame.
+ */
+final class PerformanceStats
+{
+    final LatencyHistogram varbitChanged = new LatencyHistogram("onVarbitChanged");
+    final LatencyHistogram itemContainerChanged = new LatencyHistogram("onItemContainerChanged");
+    final LatencyHistogram evaluation = new LatencyHistogram("evaluateWarningState");
+    final LatencyHistogram render = new LatencyHistogram("overlay render");
+
+    private final LatencyHistogram[] histograms = {varbitChanged, itemContainerChanged, evaluation, render};
+
+    long eventsReceived;
+    long evaluationsRun;
+    long evaluationsSkipped;
+
+    LatencyHistogram[] getHistograms()
+    {
+        return histograms;
+    }
+
+    long getEvaluationsRun()
+    {
+        return evaluationsRun;
+    }
+
+    void reset()
+    {
+        for (LatencyHistogram histogram : histograms)
+        {
+            histogram.reset();
+        }
+        eventsReceived = 0;
+        evaluationsRun = 0;
+        evaluationsSkipped = 0;
+    }
+
+    static String formatSummary(LatencyHistogram histogram)
+    {
+        return String.format("%s: n=%d p50=%s p99=%s max=%s",
+            histogram.getName(),
+            histogram.getCount(),
+            formatNanos(histogram.getPercentile(50)),
+            formatNanos(histogram.getPercentile(99)),
+            formatNanos(histogram.getMax()));
+    }
+
+    static String formatNanos(long nanos)
+    {
+        if (nanos < 1_000)
+        {
+            return nanos + "ns";
+        }
+        if (nanos < 1_000_000)
+        {
+            return String.format("%.1fus", nanos / 1e3);
+        }
+        return String.format("%.2fms", nanos / 1e6);
+    }
+}
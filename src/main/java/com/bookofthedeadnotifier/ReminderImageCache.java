@@ -0,0 +1,116 @@
+package com.bookofthedeadnotifier;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.image.BufferedImage;
+
+/**
+ * Small LRU cache of fully rendered reminder panels, keyed by text and
+ * background color. Entries live in a fixed array and are reused, so
+ * looking one up never allocates. The cache is cleared whenever the
+ * settings or the overlay font change.
+ */
+final class ReminderImageCache
+{
+    static final class Entry
+    {
+        private String text;
+        private Color color;
+        private BufferedImage image;
+        private Dimension size;
+        private long lastUsed;
+
+        BufferedImage getImage()
+        {
+            return image;
+        }
+
+        Dimension getSize()
+        {
+            return size;
+        }
+    }
+
+    private final Entry[] entries;
+    private long useCounter = 0;
+    private ConfigSnapshot cachedSettings;
+    private Font cachedFont;
+
+    ReminderImageCache(int capacity)
+    {
+        entries = new Entry[capacity];
+        for (int i = 0; i < capacity; i++)
+        {
+            entries[i] = new Entry();
+        }
+    }
+
+    void validate(ConfigSnapshot settings, Font font)
+    {
+        if (settings == cachedSettings && font.equals(cachedFont))
+        {
+            return;
+        }
+
+        cachedSettings = settings;
+        cachedFont = font;
+        clear();
+    }
+
+    Entry find(String text, Color color)
+    {
+        for (Entry entry : entries)
+        {
+            if (entry.image != null && entry.color.equals(color) && entry.text.equals(text))
+            {
+                entry.lastUsed = ++useCounter;
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    Entry put(String text, Color color, BufferedImage image, Dimension size)
+    {
+        Entry target = entries[0];
+        for (Entry entry : entries)
+        {
+            if (entry.image == null)
+            {
+                target = entry;
+                break;
+            }
+            if (entry.lastUsed < target.lastUsed)
+            {
+                target = entry;
+            }
+        }
+
+        if (target.image != null)
+        {
+            target.image.flush();
+        }
+        target.text = text;
+        target.color = color;
+        target.image = image;
+        target.size = size;
+        target.lastUsed = ++useCounter;
+        return target;
+    }
+
+    void clear()
+    {
+        for (Entry entry : entries)
+        {
+            if (entry.image != null)
+            {
+                entry.image.flush();
+            }
+            entry.text = null;
+            entry.color = null;
+            entry.image = null;
+            entry.size = null;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.bookofthedeadnotifier;
+
+import net.runelite.api.InventoryID;
+import net.runelite.api.Varbits;
+
+/**
+ * The client inputs reminders are computed from, so unrelated events are
+ * dropped and a tick with nothing dirty skips evaluation. The spellbook is
+ * read on its own; runes and carried items come from the same containers
+ * and are always re-checked together in the single pass over all loadouts.
+ */
+enum Requirement
+{
+    SPELLBOOK(
+        new int[] {Varbits.SPELLBOOK},
+        new int[] {}),
+    SUPPLIES(
+        new int[] {
+            Varbits.RUNE_POUCH_RUNE1, Varbits.RUNE_POUCH_RUNE2, Varbits.RUNE_POUCH_RUNE3,
+            Varbits.RUNE_POUCH_RUNE4, Varbits.RUNE_POUCH_RUNE5, Varbits.RUNE_POUCH_RUNE6,
+            Varbits.RUNE_POUCH_AMOUNT1, Varbits.RUNE_POUCH_AMOUNT2, Varbits.RUNE_POUCH_AMOUNT3,
+            Varbits.RUNE_POUCH_AMOUNT4, Varbits.RUNE_POUCH_AMOUNT5, Varbits.RUNE_POUCH_AMOUNT6
+        },
+        new int[] {InventoryID.INVENTORY.getId(), InventoryID.EQUIPMENT.getId()});
+
+    private static final Requirement[] ALL = values();
+
+    // Dense tables from varbit and container id to the requirements reading
+    // it, so the flood of unrelated varbit changes is rejected by one lookup.
+    private static final int[] VARBIT_MASKS = buildTable(true);
+    private static final int[] CONTAINER_MASKS = buildTable(false);
+
+    private final int[] varbits;
+    private final int[] containers;
+
+    Requirement(int[] varbits, int[] containers)
+    {
+        this.varbits = varbits;
+        this.containers = containers;
+    }
+
+    int mask()
+    {
+        return 1 << ordinal();
+    }
+
+    static int maskForVarbit(int varbitId)
+    {
+        return varbitId >= 0 && varbitId < VARBIT_MASKS.length ? VARBIT_MASKS[varbitId] : 0;
+    }
+
+    static int maskForContainer(int containerId)
+    {
+        return containerId >= 0 && containerId < CONTAINER_MASKS.length ? CONTAINER_MASKS[containerId] : 0;
+    }
+
+    private static int[] buildTable(boolean varbits)
+    {
+        int maxId = -1;
+        for (Requirement requirement : ALL)
+        {
+            for (int id : varbits ? requirement.varbits : requirement.containers)
+            {
+                maxId = Math.max(maxId, id);
+            }
+        }
+
+        int[] table = new int[maxId + 1];
+        for (Requirement requirement : ALL)
+        {
+            for (int id : varbits ? requirement.varbits : requirement.containers)
+            {
+                table[id] |= requirement.mask();
+            }
+        }
+        return table;
+    }
+}
@@ -0,0 +1,31 @@
+package com.bookofthedeadnotifier;
+
+/**
+ * Rune types the plugin counts. The ordinal indexes per-rune counters and
+ * {@link #bit()} is the rune's flag in {@link ItemClassification}.
+ */
+enum Rune
+{
+    AIR,
+    WATER,
+    EARTH,
+    FIRE,
+    MIND,
+    CHAOS,
+    DEATH,
+    BLOOD,
+    COSMIC,
+    NATURE,
+    LAW,
+    BODY,
+    SOUL,
+    ASTRAL,
+    WRATH;
+
+    static final int COUNT = values().length;
+
+    int bit()
+    {
+        return 1 << ordinal();
+    }
+}
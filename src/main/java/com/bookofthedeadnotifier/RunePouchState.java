@@ -0,0 +1,187 @@
+package com.bookofthedeadnotifier;
+
+import net.runelite.api.Client;
+import net.runelite.api.EnumComposition;
+import net.runelite.api.EnumID;
+import net.runelite.api.Varbits;
+
+import java.util.Arrays;
+
+/**
+ * Contents of the rune pouch, kept up to date from the pouch varbits.
+ *
+ * <p>The {@code RUNEPOUCH_RUNE} enum is resolved once into a table from
+ * enum key to {@link ItemClassification} flags. After a full {@link #load},
+ * each varbit change only updates its own slot and adjusts the per-rune
+ * totals by the difference.
+ */
+final class RunePouchState
+{
+    static final int SLOTS = 6;
+
+    private static final int[] RUNE_VARBITS = {
+        Varbits.RUNE_POUCH_RUNE1, Varbits.RUNE_POUCH_RUNE2, Varbits.RUNE_POUCH_RUNE3,
+        Varbits.RUNE_POUCH_RUNE4, Varbits.RUNE_POUCH_RUNE5, Varbits.RUNE_POUCH_RUNE6
+    };
+    private static final int[] AMOUNT_VARBITS = {
+        Varbits.RUNE_POUCH_AMOUNT1, Varbits.RUNE_POUCH_AMOUNT2, Varbits.RUNE_POUCH_AMOUNT3,
+        Varbits.RUNE_POUCH_AMOUNT4, Varbits.RUNE_POUCH_AMOUNT5, Varbits.RUNE_POUCH_AMOUNT6
+    };
+
+    // Dense table from varbit id to 1 + slot for rune varbits and
+    // -(1 + slot) for amount varbits; 0 for every other varbit.
+    private static final int[] VARBIT_SLOTS = buildVarbitSlots();
+
+    // Classification of the rune stored under each enum key; null until resolved.
+    private int[] keyFlags;
+
+    private final int[] slotKeys = new int[SLOTS];
+    private final int[] slotAmounts = new int[SLOTS];
+    private final int[] totals = new int[Rune.COUNT];
+
+    static boolean isPouchVarbit(int varbitId)
+    {
+        return varbitSlot(varbitId) != 0;
+    }
+
+    boolean isResolved()
+    {
+        return keyFlags != null;
+    }
+
+    int getTotal(int rune)
+    {
+        return totals[rune];
+    }
+
+    /**
+     * Forgets the resolved enum and the pouch contents.
+     */
+    void invalidate()
+    {
+        keyFlags = null;
+        Arrays.fill(slotKeys, 0);
+        Arrays.fill(slotAmounts, 0);
+        Arrays.fill(totals, 0);
+    }
+
+    /**
+     * Resolves the enum if needed and reads every pouch slot.
+     */
+    void load(Client client)
+    {
+        if (keyFlags == null)
+        {
+            resolve(client.getEnum(EnumID.RUNEPOUCH_RUNE));
+        }
+
+        Arrays.fill(totals, 0);
+        for (int slot = 0; slot < SLOTS; slot++)
+        {
+            slotKeys[slot] = client.getVarbitValue(RUNE_VARBITS[slot]);
+            slotAmounts[slot] = client.getVarbitValue(AMOUNT_VARBITS[slot]);
+            addSlot(slot, 1);
+        }
+    }
+
+    /**
+     * Applies one pouch varbit change. Must only be called once resolved.
+     *
+     * @return whether any rune total changed
+     */
+    boolean update(int varbitId, int value)
+    {
+        int encodedSlot = varbitSlot(varbitId);
+        if (encodedSlot > 0)
+        {
+            int slot = encodedSlot - 1;
+            if (slotKeys[slot] == value)
+            {
+                return false;
+            }
+            boolean counted = slotAmounts[slot] > 0;
+            addSlot(slot, -1);
+            slotKeys[slot] = value;
+            addSlot(slot, 1);
+            return counted;
+        }
+
+        if (encodedSlot == 0)
+        {
+            return false;
+        }
+        int slot = -encodedSlot - 1;
+        if (slotAmounts[slot] == value)
+        {
+            return false;
+        }
+        addSlot(slot, -1);
+        slotAmounts[slot] = value;
+        addSlot(slot, 1);
+        return flagsFor(slotKeys[slot]) != 0;
+    }
+
+    private void resolve(EnumComposition runes)
+    {
+        int[] keys = runes.getKeys();
+        int[] values = runes.getIntVals();
+        int maxKey = 0;
+        for (int key : keys)
+        {
+            maxKey = Math.max(maxKey, key);
+        }
+
+        int[] table = new int[maxKey + 1];
+        for (int i = 0; i < keys.length; i++)
+        {
+            if (keys[i] >= 0)
+            {
+                table[keys[i]] = ItemClassification.classify(values[i]);
+            }
+        }
+        keyFlags = table;
+    }
+
+    private void addSlot(int slot, int sign)
+    {
+        int amount = slotAmounts[slot];
+        if (amount <= 0)
+        {
+            return;
+        }
+
+        int runeBits = flagsFor(slotKeys[slot]) & ItemClassification.RUNE_MASK;
+        while (runeBits != 0)
+        {
+            totals[Integer.numberOfTrailingZeros(runeBits)] += sign * amount;
+            runeBits &= runeBits - 1;
+        }
+    }
+
+    private int flagsFor(int key)
+    {
+        return key > 0 && key < keyFlags.length ? keyFlags[key] : 0;
+    }
+
+    private static int varbitSlot(int varbitId)
+    {
+        return varbitId >= 0 && varbitId < VARBIT_SLOTS.length ? VARBIT_SLOTS[varbitId] : 0;
+    }
+
+    private static int[] buildVarbitSlots()
+    {
+        int maxId = 0;
+        for (int slot = 0; slot < SLOTS; slot++)
+        {
+            maxId = Math.max(maxId, Math.max(RUNE_VARBITS[slot], AMOUNT_VARBITS[slot]));
+        }
+
+        int[] table = new int[maxId + 1];
+        for (int slot = 0; slot < SLOTS; slot++)
+        {
+            table[RUNE_VARBITS[slot]] = slot + 1;
+            table[AMOUNT_VARBITS[slot]] = -(slot + 1);
+        }
+        return table;
+    }
+}
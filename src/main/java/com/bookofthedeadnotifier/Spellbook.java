@@ -0,0 +1,29 @@
+package com.bookofthedeadnotifier;
+
+/**
+ * Spellbooks in the order of their {@code Varbits.SPELLBOOK} values.
+ */
+enum Spellbook
+{
+    STANDARD("Standard"),
+    ANCIENT("Ancient"),
+    LUNAR("Lunar"),
+    ARCEUUS("Arceuus");
+
+    private final String name;
+
+    Spellbook(String name)
+    {
+        this.name = name;
+    }
+
+    int getVarbitValue()
+    {
+        return ordinal();
+    }
+
+    String getName()
+    {
+        return name;
+    }
+}
@@ -0,0 +1,187 @@
+package com.bookofthedeadnotifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Custom reminder text compiled into literal segments and placeholders such
+ * as {@code {fire}}. Compiled once per config change; a {@link Cache} then
+ * only builds a new string when a value the template uses has changed.
+ */
+final class TextTemplate
+{
+    enum Placeholder
+    {
+        MISSING,
+        LOADOUT,
+        FIRE,
+        BLOOD,
+        COSMIC,
+        CASTS;
+
+        static final int COUNT = values().length;
+
+        private final String token = "{" + name().toLowerCase(Locale.ROOT) + "}";
+
+        int mask()
+        {
+            return 1 << ordinal();
+        }
+    }
+
+    // literals[i] comes before placeholders[i]; the last literal ends the text.
+    private final String[] literals;
+    private final Placeholder[] placeholders;
+    private final int usedMask;
+
+    private TextTemplate(String[] literals, Placeholder[] placeholders)
+    {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        int mask = 0;
+        for (Placeholder placeholder : placeholders)
+        {
+            mask |= placeholder.mask();
+        }
+        this.usedMask = mask;
+    }
+
+    /**
+     * Splits the text at every known placeholder. Anything else in braces is
+     * kept as written.
+     */
+    static TextTemplate compile(String text)
+    {
+        if (text == null)
+        {
+            text = "";
+        }
+
+        List<String> literals = new ArrayList<>();
+        List<Placeholder> placeholders = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < text.length())
+        {
+            Placeholder placeholder = text.charAt(i) == '{' ? placeholderAt(text, i) : null;
+            if (placeholder == null)
+            {
+                literal.append(text.charAt(i++));
+                continue;
+            }
+
+            literals.add(literal.toString());
+            literal.setLength(0);
+            placeholders.add(placeholder);
+            i += placeholder.token.length();
+        }
+        literals.add(literal.toString());
+
+        return new TextTemplate(literals.toArray(new String[0]), placeholders.toArray(new Placeholder[0]));
+    }
+
+    private static Placeholder placeholderAt(String text, int index)
+    {
+        for (Placeholder placeholder : Placeholder.values())
+        {
+            if (text.regionMatches(true, index, placeholder.token, 0, placeholder.token.length()))
+            {
+                return placeholder;
+            }
+        }
+        return null;
+    }
+
+    boolean uses(Placeholder placeholder)
+    {
+        return (usedMask & placeholder.mask()) != 0;
+    }
+
+    boolean isConstant()
+    {
+        return placeholders.length == 0;
+    }
+
+    /**
+     * @param values the numeric placeholder values, indexed by ordinal
+     */
+    private String render(Loadout loadout, MissingCondition condition, int[] values)
+    {
+        StringBuilder text = new StringBuilder(literals[0]);
+        for (int i = 0; i < placeholders.length; i++)
+        {
+            Placeholder placeholder = placeholders[i];
+            switch (placeholder)
+            {
+                case MISSING:
+                    text.append(loadout.getLongText(condition));
+                    break;
+                case LOADOUT:
+                    text.append(loadout.getName());
+                    break;
+                case CASTS:
+                    int casts = values[placeholder.ordinal()];
+                    text.append(casts == Integer.MAX_VALUE ? "unlimited" : String.valueOf(casts));
+                    break;
+                default:
+                    text.append(values[placeholder.ordinal()]);
+                    break;
+            }
+            text.append(literals[i + 1]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * The last text rendered from a template and the values it was rendered
+     * with. Not thread safe; owned by the overlay.
+     */
+    static final class Cache
+    {
+        private TextTemplate template;
+        private Loadout loadout;
+        private MissingCondition condition;
+        private final int[] values = new int[Placeholder.COUNT];
+        private String text;
+
+        String render(TextTemplate template, Loadout loadout, MissingCondition condition, int[] values)
+        {
+            if (template.isConstant())
+            {
+                return template.literals[0];
+            }
+
+            if (template != this.template || isStale(template, loadout, condition, values))
+            {
+                this.template = template;
+                this.loadout = loadout;
+                this.condition = condition;
+                System.arraycopy(values, 0, this.values, 0, Placeholder.COUNT);
+                text = template.render(loadout, condition, values);
+            }
+            return text;
+        }
+
+        private boolean isStale(TextTemplate template, Loadout loadout, MissingCondition condition, int[] values)
+        {
+            int used = template.usedMask;
+            if ((used & (Placeholder.MISSING.mask() | Placeholder.LOADOUT.mask())) != 0 && loadout != this.loadout)
+            {
+                return true;
+            }
+            if ((used & Placeholder.MISSING.mask()) != 0 && condition != this.condition)
+            {
+                return true;
+            }
+            for (int p = Placeholder.FIRE.ordinal(); p < Placeholder.COUNT; p++)
+            {
+                if ((used & (1 << p)) != 0 && values[p] != this.values[p])
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.bookofthedeadnotifier;
+
+import com.sun.management.ThreadMXBean;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.ItemID;
+import net.runelite.api.Varbits;
+import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.VarbitChanged;
+import net.runelite.client.ui.overlay.components.LineComponent;
+import net.runelite.client.ui.overlay.components.PanelComponent;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Fails when a steady-state event or an unchanged frame allocates more than
+ * its budget, measured as bytes allocated by the current thread per
+ * operation after a warm-up.
+ *
+ * <p>Frames rendered through the plain panel go through RuneLite's layout
+ * components, which allocate per frame on their own. Those frames are
+ * measured against the same panel rendered directly, and only the
+ * difference counts against the budget.
+ */
+public class AllocationBudgetTest
+{
+	private static final int WARMUP_ITERATIONS = 20_000;
+	private static final int MEASURED_ITERATIONS = 20_000;
+
+	// Bytes per operation. The handlers are expected to allocate nothing;
+	// the budgets only leave room for measurement noise.
+	private static final double CONTAINER_EVENT_BUDGET = 16;
+	private static final double POUCH_VARBIT_EVENT_BUDGET = 16;
+	private static final double UNCHANGED_FRAME_BUDGET = 16;
+	// Two measurements are subtracted, so their noise adds up.
+	private static final double UNCHANGED_PANEL_FRAME_BUDGET = 32;
+
+	private static final int ARCEUUS_SPELLBOOK = 3;
+	// One default flash period, in game cycles.
+	private static final int PULSE_CYCLES = 40;
+
+	private ThreadMXBean threads;
+
+	@Before
+	public void setUp()
+	{
+		threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported());
+		threads.setThreadAllocatedMemoryEnabled(true);
+	}
+
+	@Test
+	public void containerEventStaysWithinBudget()
+	{
+		PluginHarness harness = warningHarness(new FakeConfig());
+		ItemContainerChanged[] events = {
+			inventoryChanged(100),
+			inventoryChanged(99)
+		};
+		int[] next = {0};
+
+		double bytes = bytesPerOperation(() ->
+		{
+			next[0] ^= 1;
+			harness.plugin.onItemContainerChanged(events[next[0]]);
+			harness.tick();
+		});
+
+		assertWithinBudget("container event", bytes, CONTAINER_EVENT_BUDGET);
+	}
+
+	@Test
+	public void pouchVarbitEventStaysWithinBudget()
+	{
+		PluginHarness harness = warningHarness(new FakeConfig());
+		harness.setVarbit(Varbits.RUNE_POUCH_RUNE1, FakeEnumComposition.runePouchKey(ItemID.BLOOD_RUNE));
+		harness.setVarbit(Varbits.RUNE_POUCH_AMOUNT1, 1000);
+		harness.tick();
+		VarbitChanged[] events = {
+			pouchAmountChanged(1000),
+			pouchAmountChanged(999)
+		};
+		int[] next = {0};
+
+		double bytes = bytesPerOperation(() ->
+		{
+			next[0] ^= 1;
+			harness.plugin.onVarbitChanged(events[next[0]]);
+			harness.tick();
+		});
+
+		assertWithinBudget("pouch varbit event", bytes, POUCH_VARBIT_EVENT_BUDGET);
+	}
+
+	@Test
+	public void unchangedFrameStaysWithinBudget()
+	{
+		FakeConfig config = new FakeConfig();
+		config.set("cacheReminderImage", true);
+		PluginHarness harness = warningHarness(config);
+		assertTrue("reminder should be showing", harness.plugin.shouldShowWarning());
+
+		BufferedImage target = new BufferedImage(400, 200, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = target.createGraphics();
+		try
+		{
+			double bytes = bytesPerOperation(() -> harness.overlay.render(graphics));
+
+			assertWithinBudget("unchanged frame", bytes, UNCHANGED_FRAME_BUDGET);
+		}
+		finally
+		{
+			graphics.dispose();
+		}
+	}
+
+	@Test
+	public void unchangedPanelFrameStaysWithinBudget()
+	{
+		PluginHarness harness = warningHarness(new FakeConfig());
+		assertTrue("reminder should be showing", harness.plugin.shouldShowWarning());
+
+		BufferedImage target = new BufferedImage(400, 200, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = target.createGraphics();
+		try
+		{
+			// The panel the overlay builds for this reminder, without the overlay.
+			String text = harness.plugin.getCurrentLoadout().getLongText(harness.plugin.getCurrentMissingCondition());
+			PanelComponent panel = new PanelComponent();
+			panel.getChildren().add(LineComponent.builder()
+				.left(text)
+				.build());
+			panel.setPreferredSize(new Dimension(graphics.getFontMetrics().stringWidth(text), 0));
+			panel.setBackgroundColor(harness.plugin.getConfigSnapshot().getFlashPalette().colorAt(0));
+
+			double panelBytes = bytesPerOperation(() -> panel.render(graphics));
+			double frameBytes = bytesPerOperation(() -> harness.overlay.render(graphics));
+
+			assertWithinBudget("unchanged panel frame", frameBytes - panelBytes, UNCHANGED_PANEL_FRAME_BUDGET);
+		}
+		finally
+		{
+			graphics.dispose();
+		}
+	}
+
+	@Test
+	public void unchangedTemplateFrameStaysWithinBudget()
+	{
+		FakeConfig config = new FakeConfig();
+		config.set("cacheReminderImage", true);
+		config.set("reminderStyle", BookOfTheDeadNotifierStyle.CUSTOM_TEXT);
+		config.set("customText", "{missing}: {fire} fire, {casts} casts");
+		PluginHarness harness = warningHarness(config);
+		assertTrue("reminder should be showing", harness.plugin.shouldShowWarning());
+
+		BufferedImage target = new BufferedImage(400, 200, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = target.createGraphics();
+		try
+		{
+			double bytes = bytesPerOperation(() -> harness.overlay.render(graphics));
+
+			assertWithinBudget("unchanged template frame", bytes, UNCHANGED_FRAME_BUDGET);
+		}
+		finally
+		{
+			graphics.dispose();
+		}
+	}
+
+	@Test
+	public void pulsingFrameStaysWithinBudget()
+	{
+		FakeConfig config = new FakeConfig();
+		config.set("cacheReminderImage", true);
+		config.set("flashReminderBox", true);
+		config.set("flashEasing", FlashEasing.SMOOTH);
+		PluginHarness harness = warningHarness(config);
+		assertTrue("reminder should be showing", harness.plugin.shouldShowWarning());
+
+		BufferedImage target = new BufferedImage(400, 200, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = target.createGraphics();
+		// Cycles stay in the range the fake client returns without boxing.
+		int[] gameCycle = {0};
+		try
+		{
+			double bytes = bytesPerOperation(() ->
+			{
+				gameCycle[0] = (gameCycle[0] + 1) % PULSE_CYCLES;
+				harness.client.setGameCycle(gameCycle[0]);
+				harness.overlay.render(graphics);
+			});
+
+			assertWithinBudget("pulsing frame", bytes, UNCHANGED_FRAME_BUDGET);
+		}
+		finally
+		{
+			graphics.dispose();
+		}
+	}
+
+	/**
+	 * Arceuus spellbook, a rune pouch and enough runes, but no Book of the
+	 * Dead, so every evaluation ends with the reminder showing.
+	 */
+	private static PluginHarness warningHarness(FakeConfig config)
+	{
+		PluginHarness harness = new PluginHarness(config.getConfig());
+		harness.setVarbit(Varbits.SPELLBOOK, ARCEUUS_SPELLBOOK);
+		harness.setContainer(InventoryID.INVENTORY, inventory(100));
+		harness.setContainer(InventoryID.EQUIPMENT);
+		harness.tick();
+		return harness;
+	}
+
+	private static Item[] inventory(int fireRunes)
+	{
+		Item[] items = new Item[28];
+		for (int slot = 0; slot < items.length; slot++)
+		{
+			items[slot] = new Item(ItemID.SHARK, 1);
+		}
+		items[0] = new Item(ItemID.RUNE_POUCH, 1);
+		items[1] = new Item(ItemID.FIRE_RUNE, fireRunes);
+		items[2] = new Item(ItemID.BLOOD_RUNE, 50);
+		items[3] = new Item(ItemID.COSMIC_RUNE, 50);
+		return items;
+	}
+
+	private static ItemContainerChanged inventoryChanged(int fireRunes)
+	{
+		int containerId = InventoryID.INVENTORY.getId();
+		return new ItemContainerChanged(containerId, FakeItemContainer.create(containerId, inventory(fireRunes)));
+	}
+
+	private static VarbitChanged pouchAmountChanged(int amount)
+	{
+		VarbitChanged event = new VarbitChanged();
+		event.setVarbitId(Varbits.RUNE_POUCH_AMOUNT1);
+		event.setValue(amount);
+		return event;
+	}
+
+	private double bytesPerOperation(Runnable operation)
+	{
+		for (int i = 0; i < WARMUP_ITERATIONS; i++)
+		{
+			operation.run();
+		}
+
+		long threadId = Thread.currentThread().getId();
+		long before = threads.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < MEASURED_ITERATIONS; i++)
+		{
+			operation.run();
+		}
+		long after = threads.getThreadAllocatedBytes(threadId);
+		return (double) (after - before) / MEASURED_ITERATIONS;
+	}
+
+	private static void assertWithinBudget(String operation, double bytes, double budget)
+	{
+		assertTrue(String.format("%s allocated %.1f bytes/op, budget is %.0f", operation, bytes, budget),
+			bytes <= budget);
+	}
+}
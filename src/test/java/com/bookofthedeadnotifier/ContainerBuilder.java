@@ -0,0 +1,92 @@
+package com.bookofthedeadnotifier;
+
+import net.runelite.api.EquipmentInventorySlot;
+import net.runelite.api.Item;
+
+import java.util.Arrays;
+
+/**
+ * Builds the slots of an inventory or equipment container. Slots that are
+ * not filled hold the empty item, as the client reports them.
+ *
+ * <pre>
+ * ContainerBuilder.inventory()
+ *     .add(ItemID.FIRE_RUNE, 100)
+ *     .add(ItemID.RUNE_POUCH)
+ *     .build();
+ * </pre>
+ */
+final class ContainerBuilder
+{
+	static final int INVENTORY_SIZE = 28;
+	static final int EQUIPMENT_SIZE = 14;
+
+	private final Item[] slots;
+
+	private ContainerBuilder(int size)
+	{
+		slots = new Item[size];
+		Arrays.fill(slots, FakeItemContainer.empty());
+	}
+
+	static ContainerBuilder inventory()
+	{
+		return new ContainerBuilder(INVENTORY_SIZE);
+	}
+
+	static ContainerBuilder equipment()
+	{
+		return new ContainerBuilder(EQUIPMENT_SIZE);
+	}
+
+	ContainerBuilder add(int itemId)
+	{
+		return add(itemId, 1);
+	}
+
+	/**
+	 * Puts the item in the first empty slot.
+	 */
+	ContainerBuilder add(int itemId, int quantity)
+	{
+		for (int slot = 0; slot < slots.length; slot++)
+		{
+			if (slots[slot].getId() == -1)
+			{
+				return set(slot, itemId, quantity);
+			}
+		}
+		throw new IllegalStateException("Container is full");
+	}
+
+	ContainerBuilder set(int slot, int itemId, int quantity)
+	{
+		slots[slot] = new Item(itemId, quantity);
+		return this;
+	}
+
+	ContainerBuilder equip(EquipmentInventorySlot slot, int itemId)
+	{
+		return set(slot.getSlotIdx(), itemId, 1);
+	}
+
+	/**
+	 * Fills every empty slot with the item.
+	 */
+	ContainerBuilder fill(int itemId, int quantity)
+	{
+		for (int slot = 0; slot < slots.length; slot++)
+		{
+			if (slots[slot].getId() == -1)
+			{
+				set(slot, itemId, quantity);
+			}
+		}
+		return this;
+	}
+
+	Item[] build()
+	{
+		return slots.clone();
+	}
+}
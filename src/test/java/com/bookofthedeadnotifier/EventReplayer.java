@@ -0,0 +1,133 @@
+package com.bookofthedeadnotifier;
+
+import net.runelite.api.GameState;
+import net.runelite.api.Item;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * Replays an event log written by {@link EventRecorder} through the plugin
+ * as fast as possible, without a game client, and reports throughput and
+ * the final reminder state.
+ */
+public class EventReplayer
+{
+	private final FakeConfig config = new FakeConfig();
+	private final PluginHarness harness = new PluginHarness(config.getConfig());
+
+	private long events;
+	private long replayNanos;
+
+	public static void main(String[] args) throws Exception
+	{
+		if (args.length != 1)
+		{
+			System.err.println("Usage: EventReplayer <event log>");
+			System.exit(2);
+		}
+
+		EventReplayer replayer = new EventReplayer();
+		replayer.replay(args[0]);
+		replayer.printSummary(args[0]);
+	}
+
+	void replay(String path) throws IOException
+	{
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path))))
+		{
+			if (in.readInt() != EventRecorder.MAGIC)
+			{
+				throw new IOException(path + " is not an event log");
+			}
+			int version = in.readUnsignedByte();
+			// Version 2 only added game state records.
+			if (version < 1 || version > EventRecorder.VERSION)
+			{
+				throw new IOException("Unsupported event log version " + version);
+			}
+
+			long start = System.nanoTime();
+			while (replayNext(in))
+			{
+				events++;
+			}
+			replayNanos = System.nanoTime() - start;
+		}
+	}
+
+	private boolean replayNext(DataInputStream in) throws IOException
+	{
+		byte type;
+		try
+		{
+			type = in.readByte();
+		}
+		catch (EOFException e)
+		{
+			return false;
+		}
+
+		harness.client.setTickCount(in.readInt());
+		switch (type)
+		{
+			case EventRecorder.VARBIT:
+				harness.setVarbit(in.readInt(), in.readInt());
+				break;
+			case EventRecorder.CONTAINER:
+			{
+				int containerId = in.readInt();
+				Item[] items = new Item[in.readUnsignedShort()];
+				for (int slot = 0; slot < items.length; slot++)
+				{
+					items[slot] = new Item(in.readInt(), in.readInt());
+				}
+				harness.setContainer(containerId, items);
+				break;
+			}
+			case EventRecorder.GAME_TICK:
+				harness.tick();
+				break;
+			case EventRecorder.CONFIG:
+			{
+				String key = in.readUTF();
+				String value = in.readBoolean() ? in.readUTF() : null;
+				// Every recorded log starts with recordEvents on; applying it
+				// would record the replay and open RuneLite's overlays.
+				if (!config.isDeveloperSetting(key))
+				{
+					config.setString(key, value);
+					harness.changeConfig(key);
+				}
+				break;
+			}
+			case EventRecorder.GAME_STATE:
+				harness.setGameState(GameState.valueOf(in.readUTF()));
+				break;
+			default:
+				throw new IOException("Unknown record type " + type);
+		}
+		return true;
+	}
+
+	PluginHarness getHarness()
+	{
+		return harness;
+	}
+
+	void printSummary(String path)
+	{
+		double seconds = replayNanos / 1e9;
+		System.out.println("Replayed " + path);
+		System.out.printf("  events:        %d in %.3f s (%.0f events/s)%n", events, seconds, events / Math.max(seconds, 1e-9));
+		System.out.println("  evaluations:   " + harness.plugin.getPerformanceStats().getEvaluationsRun());
+		// What the plugin actually sent, after its enable toggles and cooldown.
+		System.out.println("  notifications: " + harness.notifier.count());
+		System.out.println("  final state:   " + (harness.plugin.shouldShowWarning()
+			? "warning shown (" + harness.plugin.getCurrentLoadout().getName() + ": " + harness.plugin.getCurrentMissingCondition() + ")"
+			: "no warning"));
+	}
+}
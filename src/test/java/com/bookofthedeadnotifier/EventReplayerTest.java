@@ -0,0 +1,66 @@
+package com.bookofthedeadnotifier;
+
+import net.runelite.api.InventoryID;
+import net.runelite.api.ItemID;
+import net.runelite.api.Varbits;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Records a session with {@link EventRecorder} the way the plugin does and
+ * replays it through {@link EventReplayer}.
+ */
+public class EventReplayerTest
+{
+	@Test
+	public void replaysRecordedSession() throws Exception
+	{
+		File file = File.createTempFile("events", ".botd");
+		try
+		{
+			recordSession(file);
+
+			EventReplayer replayer = new EventReplayer();
+			replayer.replay(file.getPath());
+
+			PluginHarness harness = replayer.getHarness();
+			assertTrue(harness.plugin.shouldShowWarning());
+			assertEquals(MissingCondition.REQUIRED_ITEM, harness.plugin.getCurrentMissingCondition());
+			assertEquals(1, harness.notifier.count());
+			assertFalse(harness.config.recordEvents());
+		}
+		finally
+		{
+			file.delete();
+		}
+	}
+
+	/**
+	 * Arceuus spellbook and enough runes, but no Book of the Dead.
+	 */
+	private static void recordSession(File file) throws IOException
+	{
+		EventRecorder recorder = EventRecorder.open(file);
+		// The plugin starts every log with its full configuration, which
+		// includes the developer settings that turned recording on.
+		recorder.recordConfig(0, "recordEvents", "true");
+		recorder.recordConfig(0, "showPerformanceOverlay", "true");
+		recorder.recordConfig(0, "notification", "{\"enabled\":true}");
+		recorder.recordConfig(0, "minFireRunes", "5");
+		recorder.recordVarbit(1, Varbits.SPELLBOOK, Spellbook.ARCEUUS.getVarbitValue());
+		recorder.recordContainer(1, InventoryID.INVENTORY.getId(), ContainerBuilder.inventory()
+			.add(ItemID.FIRE_RUNE, 5)
+			.add(ItemID.BLOOD_RUNE, 10)
+			.add(ItemID.COSMIC_RUNE, 10)
+			.build());
+		recorder.recordGameTick(1);
+		recorder.recordGameTick(2);
+		recorder.close();
+	}
+}
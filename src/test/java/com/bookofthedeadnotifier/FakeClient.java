@@ -0,0 +1,159 @@
+package com.bookofthedeadnotifier;
+
+import net.runelite.api.Client;
+import net.runelite.api.EnumComposition;
+import net.runelite.api.EnumID;
+import net.runelite.api.GameState;
+import net.runelite.api.InventoryID;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.Player;
+import net.runelite.api.coords.WorldPoint;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory stand-in for the parts of {@link Client} the plugin reads.
+ * Every other method returns the zero value for its return type.
+ */
+final class FakeClient implements InvocationHandler
+{
+	private final Client client = (Client) Proxy.newProxyInstance(
+		Client.class.getClassLoader(), new Class<?>[]{Client.class}, this);
+
+	private final int[] varbits = new int[1 << 16];
+	private final Map<Integer, ItemContainer> containers = new HashMap<>();
+	private final Map<Integer, EnumComposition> enums = new HashMap<>();
+	private int gameCycle;
+	private int tickCount;
+	private GameState gameState = GameState.LOGGED_IN;
+	private Player localPlayer;
+	private WorldPoint playerLocation;
+
+	FakeClient()
+	{
+		enums.put(EnumID.RUNEPOUCH_RUNE, FakeEnumComposition.runePouchRunes());
+	}
+
+	Client getClient()
+	{
+		return client;
+	}
+
+	int getVarbit(int varbitId)
+	{
+		return varbits[varbitId];
+	}
+
+	void setVarbit(int varbitId, int value)
+	{
+		varbits[varbitId] = value;
+	}
+
+	ItemContainer getContainer(InventoryID inventoryId)
+	{
+		return getContainer(inventoryId.getId());
+	}
+
+	ItemContainer getContainer(int containerId)
+	{
+		return containers.get(containerId);
+	}
+
+	void setContainer(InventoryID inventoryId, ItemContainer container)
+	{
+		setContainer(inventoryId.getId(), container);
+	}
+
+	void setContainer(int containerId, ItemContainer container)
+	{
+		containers.put(containerId, container);
+	}
+
+	void setEnum(int enumId, EnumComposition composition)
+	{
+		enums.put(enumId, composition);
+	}
+
+	void setGameCycle(int gameCycle)
+	{
+		this.gameCycle = gameCycle;
+	}
+
+	void setTickCount(int tickCount)
+	{
+		this.tickCount = tickCount;
+	}
+
+	void setGameState(GameState gameState)
+	{
+		this.gameState = gameState;
+	}
+
+	/**
+	 * Places the local player, outside any instance. There is no local
+	 * player until this is called.
+	 */
+	void setPlayerLocation(WorldPoint location)
+	{
+		playerLocation = location;
+		if (localPlayer == null)
+		{
+			localPlayer = (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class<?>[]{Player.class},
+				(proxy, method, args) ->
+				{
+					switch (method.getName())
+					{
+						case "getWorldLocation":
+							return playerLocation;
+						case "hashCode":
+							return System.identityHashCode(proxy);
+						case "equals":
+							return proxy == args[0];
+						case "toString":
+							return "FakePlayer";
+					}
+					return FakeValues.zero(method.getReturnType());
+				});
+		}
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args)
+	{
+		switch (method.getName())
+		{
+			case "getVarbitValue":
+				if (args.length == 1)
+				{
+					return varbits[(Integer) args[0]];
+				}
+				break;
+			case "getItemContainer":
+				Object id = args[0];
+				return containers.get(id instanceof InventoryID ? ((InventoryID) id).getId() : (Integer) id);
+			case "getEnum":
+				return enums.get((Integer) args[0]);
+			case "getGameCycle":
+				return gameCycle;
+			case "getTickCount":
+				return tickCount;
+			case "getGameState":
+				return gameState;
+			case "getLocalPlayer":
+				return localPlayer;
+			case "isClientThread":
+				return true;
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "equals":
+				return proxy == args[0];
+			case "toString":
+				return "FakeClient";
+		}
+		return FakeValues.zero(method.getReturnType());
+	}
+}
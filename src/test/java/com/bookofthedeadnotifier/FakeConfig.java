@@ -0,0 +1,163 @@
+package com.bookofthedeadnotifier;
+
+import net.runelite.client.config.ConfigItem;
+import net.runelite.client.config.Notification;
+
+import java.awt.Color;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Key/value backed {@link BookOfTheDeadNotifierConfig}, resolved the same
+ * way RuneLite's config proxy does it: a stored value wins, otherwise the
+ * interface default is returned. Notifications default to off so no
+ * {@code Notifier} is needed.
+ */
+final class FakeConfig implements InvocationHandler
+{
+	private final BookOfTheDeadNotifierConfig config = (BookOfTheDeadNotifierConfig) Proxy.newProxyInstance(
+		BookOfTheDeadNotifierConfig.class.getClassLoader(), new Class<?>[]{BookOfTheDeadNotifierConfig.class}, this);
+
+	private final Map<String, Method> methodsByKey = new HashMap<>();
+	private final Map<String, Object> values = new HashMap<>();
+
+	FakeConfig()
+	{
+		for (Method method : BookOfTheDeadNotifierConfig.class.getMethods())
+		{
+			ConfigItem item = method.getAnnotation(ConfigItem.class);
+			if (item != null)
+			{
+				methodsByKey.put(item.keyName(), method);
+			}
+		}
+		set("notification", Notification.OFF);
+	}
+
+	BookOfTheDeadNotifierConfig getConfig()
+	{
+		return config;
+	}
+
+	FakeConfig set(String key, Object value)
+	{
+		if (value == null)
+		{
+			values.remove(key);
+		}
+		else
+		{
+			values.put(key, value);
+		}
+		return this;
+	}
+
+	/**
+	 * Stores a value in the string form RuneLite persists it in. Keys or
+	 * types the fake cannot represent are ignored.
+	 */
+	FakeConfig setString(String key, String value)
+	{
+		Method method = methodsByKey.get(key);
+		if (method == null)
+		{
+			return this;
+		}
+		if (value == null)
+		{
+			return set(key, null);
+		}
+
+		Object parsed = parse(method.getReturnType(), value);
+		if (parsed != null)
+		{
+			set(key, parsed);
+		}
+		return this;
+	}
+
+	/**
+	 * Whether the key belongs to the Developer section, whose settings
+	 * describe a debugging session rather than how the plugin behaves.
+	 */
+	boolean isDeveloperSetting(String key)
+	{
+		Method method = methodsByKey.get(key);
+		return method != null
+			&& BookOfTheDeadNotifierConfig.developerSection.equals(method.getAnnotation(ConfigItem.class).section());
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Object parse(Class<?> type, String value)
+	{
+		if (type == boolean.class)
+		{
+			return Boolean.parseBoolean(value);
+		}
+		if (type == int.class)
+		{
+			return Integer.parseInt(value);
+		}
+		if (type == String.class)
+		{
+			return value;
+		}
+		if (type.isEnum())
+		{
+			return Enum.valueOf((Class<? extends Enum>) type, value);
+		}
+		if (type == Notification.class)
+		{
+			// Stored as a plain boolean by older clients, as JSON by newer ones.
+			boolean enabled = value.equals("true") || value.replace(" ", "").contains("\"enabled\":true");
+			return enabled ? Notification.ON : Notification.OFF;
+		}
+		if (type == Color.class)
+		{
+			if (value.startsWith("#"))
+			{
+				return new Color((int) Long.parseLong(value.substring(1), 16), value.length() > 7);
+			}
+			return new Color(Integer.parseInt(value), true);
+		}
+		return null;
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+	{
+		ConfigItem item = method.getAnnotation(ConfigItem.class);
+		if (item != null)
+		{
+			Object value = values.get(item.keyName());
+			if (value != null)
+			{
+				return value;
+			}
+		}
+
+		switch (method.getName())
+		{
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "equals":
+				return proxy == args[0];
+			case "toString":
+				return "FakeConfig" + values;
+		}
+
+		if (method.isDefault())
+		{
+			Class<?> declaringClass = method.getDeclaringClass();
+			return MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup())
+				.unreflectSpecial(method, declaringClass)
+				.bindTo(proxy)
+				.invokeWithArguments(args == null ? new Object[0] : args);
+		}
+		return FakeValues.zero(method.getReturnType());
+	}
+}
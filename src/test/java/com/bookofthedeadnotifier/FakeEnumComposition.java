@@ -0,0 +1,99 @@
+package com.bookofthedeadnotifier;
+
+import net.runelite.api.EnumComposition;
+import net.runelite.api.ItemID;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * In-memory int-to-int {@link EnumComposition}.
+ */
+final class FakeEnumComposition implements InvocationHandler
+{
+	private final int[] keys;
+	private final int[] values;
+
+	private FakeEnumComposition(int[] keys, int[] values)
+	{
+		this.keys = keys;
+		this.values = values;
+	}
+
+	static EnumComposition create(int[] keys, int[] values)
+	{
+		return (EnumComposition) Proxy.newProxyInstance(EnumComposition.class.getClassLoader(),
+			new Class<?>[]{EnumComposition.class}, new FakeEnumComposition(keys, values));
+	}
+
+	/**
+	 * The rune pouch enum: rune pouch varbit value to rune item id.
+	 */
+	static EnumComposition runePouchRunes()
+	{
+		int[] runes = {
+			ItemID.AIR_RUNE, ItemID.WATER_RUNE, ItemID.EARTH_RUNE, ItemID.FIRE_RUNE,
+			ItemID.MIND_RUNE, ItemID.CHAOS_RUNE, ItemID.DEATH_RUNE, ItemID.BLOOD_RUNE,
+			ItemID.COSMIC_RUNE, ItemID.NATURE_RUNE, ItemID.LAW_RUNE, ItemID.BODY_RUNE,
+			ItemID.SOUL_RUNE, ItemID.ASTRAL_RUNE, ItemID.MIST_RUNE, ItemID.MUD_RUNE,
+			ItemID.DUST_RUNE, ItemID.LAVA_RUNE, ItemID.STEAM_RUNE, ItemID.SMOKE_RUNE,
+			ItemID.WRATH_RUNE, ItemID.SUNFIRE_RUNE, ItemID.AETHER_RUNE
+		};
+		int[] keys = new int[runes.length];
+		for (int i = 0; i < runes.length; i++)
+		{
+			keys[i] = i + 1;
+		}
+		return create(keys, runes);
+	}
+
+	/**
+	 * Rune pouch varbit value for a rune item id, or 0 if it is not a rune.
+	 */
+	static int runePouchKey(int runeItemId)
+	{
+		EnumComposition runes = runePouchRunes();
+		for (int key : runes.getKeys())
+		{
+			if (runes.getIntValue(key) == runeItemId)
+			{
+				return key;
+			}
+		}
+		return 0;
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args)
+	{
+		switch (method.getName())
+		{
+			case "getIntValue":
+			{
+				int key = (Integer) args[0];
+				for (int i = 0; i < keys.length; i++)
+				{
+					if (keys[i] == key)
+					{
+						return values[i];
+					}
+				}
+				return -1;
+			}
+			case "getKeys":
+				return keys;
+			case "getIntVals":
+				return values;
+			case "size":
+				return keys.length;
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "equals":
+				return proxy == args[0];
+			case "toString":
+				return "FakeEnumComposition";
+		}
+		return FakeValues.zero(method.getReturnType());
+	}
+}
@@ -0,0 +1,91 @@
+package com.bookofthedeadnotifier;
+
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * In-memory {@link ItemContainer} over a fixed array of slots. Empty slots
+ * hold an item with id -1, as the client reports them.
+ */
+final class FakeItemContainer implements InvocationHandler
+{
+	private final int containerId;
+	private final Item[] items;
+
+	private FakeItemContainer(int containerId, Item[] items)
+	{
+		this.containerId = containerId;
+		this.items = items;
+	}
+
+	static ItemContainer create(int containerId, Item... items)
+	{
+		return (ItemContainer) Proxy.newProxyInstance(ItemContainer.class.getClassLoader(),
+			new Class<?>[]{ItemContainer.class}, new FakeItemContainer(containerId, items));
+	}
+
+	static Item empty()
+	{
+		return new Item(-1, 0);
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args)
+	{
+		switch (method.getName())
+		{
+			case "getId":
+				return containerId;
+			case "getItems":
+				return items;
+			case "getItem":
+			{
+				int slot = (Integer) args[0];
+				return slot >= 0 && slot < items.length && items[slot].getId() != -1 ? items[slot] : null;
+			}
+			case "size":
+				return items.length;
+			case "count":
+				return args == null ? countOccupied() : count((Integer) args[0]);
+			case "contains":
+				return count((Integer) args[0]) > 0;
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "equals":
+				return proxy == args[0];
+			case "toString":
+				return "FakeItemContainer[" + containerId + "]";
+		}
+		return FakeValues.zero(method.getReturnType());
+	}
+
+	private int count(int itemId)
+	{
+		int total = 0;
+		for (Item item : items)
+		{
+			if (item.getId() == itemId)
+			{
+				total += item.getQuantity();
+			}
+		}
+		return total;
+	}
+
+	private int countOccupied()
+	{
+		int total = 0;
+		for (Item item : items)
+		{
+			if (item.getId() != -1)
+			{
+				total++;
+			}
+		}
+		return total;
+	}
+}
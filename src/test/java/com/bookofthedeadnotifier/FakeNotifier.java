@@ -0,0 +1,44 @@
+package com.bookofthedeadnotifier;
+
+import net.runelite.client.config.Notification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stand-in for RuneLite's {@code Notifier} that records each notification
+ * instead of showing it.
+ */
+final class FakeNotifier implements NotificationSink
+{
+	private final List<Notification> notifications = new ArrayList<>();
+	private final List<String> messages = new ArrayList<>();
+
+	@Override
+	public void send(Notification notification, String message)
+	{
+		notifications.add(notification);
+		messages.add(message);
+	}
+
+	List<String> getMessages()
+	{
+		return messages;
+	}
+
+	List<Notification> getNotifications()
+	{
+		return notifications;
+	}
+
+	int count()
+	{
+		return messages.size();
+	}
+
+	void clear()
+	{
+		notifications.clear();
+		messages.clear();
+	}
+}
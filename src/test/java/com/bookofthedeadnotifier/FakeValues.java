@@ -0,0 +1,45 @@
+package com.bookofthedeadnotifier;
+
+final class FakeValues
+{
+	private FakeValues()
+	{
+	}
+
+	static Object zero(Class<?> type)
+	{
+		if (!type.isPrimitive() || type == void.class)
+		{
+			return null;
+		}
+		if (type == boolean.class)
+		{
+			return false;
+		}
+		if (type == long.class)
+		{
+			return 0L;
+		}
+		if (type == float.class)
+		{
+			return 0f;
+		}
+		if (type == double.class)
+		{
+			return 0d;
+		}
+		if (type == char.class)
+		{
+			return (char) 0;
+		}
+		if (type == byte.class)
+		{
+			return (byte) 0;
+		}
+		if (type == short.class)
+		{
+			return (short) 0;
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,226 @@
+package com.bookofthedeadnotifier;
+
+import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.Varbits;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.VarbitChanged;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.events.ConfigChanged;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Wires a {@link BookOfTheDeadNotifierPlugin} and its overlay to a
+ * {@link FakeClient} without starting RuneLite, and drives them with events.
+ * Notifications are delivered synchronously to {@link #notifier}.
+ *
+ * <p>Config changes made through {@link #setConfig} update the backing
+ * {@link FakeConfig} and post a {@link ConfigChanged}, as
+ * {@code ConfigManager.setConfiguration} does.
+ */
+final class PluginHarness
+{
+	final FakeClient client = new FakeClient();
+	final BookOfTheDeadNotifierConfig config;
+	private final FakeConfig fakeConfig;
+	final BookOfTheDeadNotifierPlugin plugin = new BookOfTheDeadNotifierPlugin();
+	final BookOfTheDeadNotifierOverlay overlay;
+	final FakeNotifier notifier = new FakeNotifier();
+	final List<String> notifications = notifier.getMessages();
+
+	PluginHarness()
+	{
+		this(new FakeConfig());
+	}
+
+	PluginHarness(FakeConfig config)
+	{
+		this(config.getConfig(), config);
+	}
+
+	PluginHarness(BookOfTheDeadNotifierConfig config)
+	{
+		this(config, null);
+	}
+
+	private PluginHarness(BookOfTheDeadNotifierConfig config, FakeConfig fakeConfig)
+	{
+		this.config = config;
+		this.fakeConfig = fakeConfig;
+		try
+		{
+			Constructor<BookOfTheDeadNotifierOverlay> constructor = BookOfTheDeadNotifierOverlay.class
+				.getDeclaredConstructor(Client.class, BookOfTheDeadNotifierPlugin.class);
+			constructor.setAccessible(true);
+			overlay = constructor.newInstance(client.getClient(), plugin);
+
+			inject("client", client.getClient());
+			inject("config", config);
+			inject("overlay", overlay);
+			inject("notificationDispatcher", new NotificationDispatcher(notifier, Runnable::run));
+			inject("clientThread", new ClientThread()
+			{
+				@Override
+				public void invoke(Runnable runnable)
+				{
+					runnable.run();
+				}
+			});
+			// As after startUp; there is no OverlayManager to attach to, so
+			// detaching the idle overlay is not supported here.
+			inject("overlayAttached", true);
+			inject("stopped", false);
+		}
+		catch (ReflectiveOperationException e)
+		{
+			throw new IllegalStateException("Unable to wire plugin", e);
+		}
+
+		// The same paths a settings change and a login take build the
+		// initial config snapshot and state.
+		changeConfig("");
+		setGameState(GameState.LOGGED_IN);
+	}
+
+	/**
+	 * Config with notifications disabled.
+	 */
+	static BookOfTheDeadNotifierConfig quietConfig()
+	{
+		return new FakeConfig().getConfig();
+	}
+
+	void setContainer(InventoryID inventoryId, Item... items)
+	{
+		setContainer(inventoryId.getId(), items);
+	}
+
+	void setContainer(int containerId, Item... items)
+	{
+		client.setContainer(containerId, FakeItemContainer.create(containerId, items));
+		plugin.onItemContainerChanged(new ItemContainerChanged(containerId, client.getContainer(containerId)));
+	}
+
+	void setInventory(ContainerBuilder inventory)
+	{
+		setContainer(InventoryID.INVENTORY, inventory.build());
+	}
+
+	void setEquipment(ContainerBuilder equipment)
+	{
+		setContainer(InventoryID.EQUIPMENT, equipment.build());
+	}
+
+	/**
+	 * Sets every pouch varbit, posting an event for each one that changed.
+	 */
+	void setRunePouch(RunePouchBuilder pouch)
+	{
+		for (int slot = 0; slot < RunePouchBuilder.RUNE_VARBITS.length; slot++)
+		{
+			setVarbitIfChanged(RunePouchBuilder.RUNE_VARBITS[slot], pouch.getRuneVarbitValue(slot));
+			setVarbitIfChanged(RunePouchBuilder.AMOUNT_VARBITS[slot], pouch.getAmountVarbitValue(slot));
+		}
+	}
+
+	void setSpellbook(Spellbook spellbook)
+	{
+		setVarbit(Varbits.SPELLBOOK, spellbook.getVarbitValue());
+	}
+
+	void setGameState(GameState gameState)
+	{
+		client.setGameState(gameState);
+		GameStateChanged event = new GameStateChanged();
+		event.setGameState(gameState);
+		plugin.onGameStateChanged(event);
+	}
+
+	void setVarbit(int varbitId, int value)
+	{
+		client.setVarbit(varbitId, value);
+		VarbitChanged event = new VarbitChanged();
+		event.setVarbitId(varbitId);
+		event.setValue(value);
+		plugin.onVarbitChanged(event);
+	}
+
+	private void setVarbitIfChanged(int varbitId, int value)
+	{
+		if (client.getVarbit(varbitId) != value)
+		{
+			setVarbit(varbitId, value);
+		}
+	}
+
+	/**
+	 * Stores a config value and notifies the plugin of the change.
+	 */
+	void setConfig(String key, Object value)
+	{
+		if (fakeConfig == null)
+		{
+			throw new IllegalStateException("Harness was not created with a FakeConfig");
+		}
+
+		fakeConfig.set(key, value);
+		ConfigChanged event = new ConfigChanged();
+		event.setGroup(BookOfTheDeadNotifierConfig.GROUP);
+		event.setKey(key);
+		event.setNewValue(value == null ? null : String.valueOf(value));
+		plugin.onConfigChanged(event);
+	}
+
+	void changeConfig(String key)
+	{
+		ConfigChanged event = new ConfigChanged();
+		event.setGroup(BookOfTheDeadNotifierConfig.GROUP);
+		event.setKey(key);
+		plugin.onConfigChanged(event);
+	}
+
+	void tick()
+	{
+		plugin.onGameTick(GameTick.INSTANCE);
+	}
+
+	/**
+	 * Runs what shutDown and then startUp do on the client thread. The
+	 * overlay manager, key manager and notifier they also register with
+	 * cannot be built outside RuneLite, so those calls are left out.
+	 */
+	void restart()
+	{
+		try
+		{
+			invoke("stop");
+			invoke("start");
+		}
+		catch (ReflectiveOperationException e)
+		{
+			throw new IllegalStateException("Unable to restart plugin", e);
+		}
+	}
+
+	private void invoke(String methodName) throws ReflectiveOperationException
+	{
+		Method method = BookOfTheDeadNotifierPlugin.class.getDeclaredMethod(methodName);
+		method.setAccessible(true);
+		method.invoke(plugin);
+	}
+
+	private void inject(String fieldName, Object value) throws ReflectiveOperationException
+	{
+		Field field = BookOfTheDeadNotifierPlugin.class.getDeclaredField(fieldName);
+		field.setAccessible(true);
+		field.set(plugin, value);
+	}
+}
@@ -0,0 +1,73 @@
+package com.bookofthedeadnotifier;
+
+import net.runelite.api.Varbits;
+
+/**
+ * Builds rune pouch contents as the rune and amount varbit values the
+ * client would hold for them.
+ */
+final class RunePouchBuilder
+{
+	static final int[] RUNE_VARBITS = {
+		Varbits.RUNE_POUCH_RUNE1, Varbits.RUNE_POUCH_RUNE2, Varbits.RUNE_POUCH_RUNE3,
+		Varbits.RUNE_POUCH_RUNE4, Varbits.RUNE_POUCH_RUNE5, Varbits.RUNE_POUCH_RUNE6
+	};
+	static final int[] AMOUNT_VARBITS = {
+		Varbits.RUNE_POUCH_AMOUNT1, Varbits.RUNE_POUCH_AMOUNT2, Varbits.RUNE_POUCH_AMOUNT3,
+		Varbits.RUNE_POUCH_AMOUNT4, Varbits.RUNE_POUCH_AMOUNT5, Varbits.RUNE_POUCH_AMOUNT6
+	};
+
+	private final int[] keys = new int[RUNE_VARBITS.length];
+	private final int[] amounts = new int[AMOUNT_VARBITS.length];
+	private int size;
+
+	static RunePouchBuilder pouch()
+	{
+		return new RunePouchBuilder();
+	}
+
+	/**
+	 * Puts the rune in the next slot.
+	 */
+	RunePouchBuilder add(int runeItemId, int amount)
+	{
+		if (size == keys.length)
+		{
+			throw new IllegalStateException("Rune pouch is full");
+		}
+
+		int key = FakeEnumComposition.runePouchKey(runeItemId);
+		if (key == 0)
+		{
+			throw new IllegalArgumentException("Not a rune: " + runeItemId);
+		}
+
+		keys[size] = key;
+		amounts[size] = amount;
+		size++;
+		return this;
+	}
+
+	int getRuneVarbitValue(int slot)
+	{
+		return keys[slot];
+	}
+
+	int getAmountVarbitValue(int slot)
+	{
+		return amounts[slot];
+	}
+
+	/**
+	 * Stores the varbits in the client without posting events, as if they
+	 * had been set before the plugin started.
+	 */
+	void applyTo(FakeClient client)
+	{
+		for (int slot = 0; slot < keys.length; slot++)
+		{
+			client.setVarbit(RUNE_VARBITS[slot], keys[slot]);
+			client.setVarbit(AMOUNT_VARBITS[slot], amounts[slot]);
+		}
+	}
+}
@@ -0,0 +1,488 @@
+package com.bookofthedeadnotifier;
+
+import net.runelite.api.EquipmentInventorySlot;
+import net.runelite.api.GameState;
+import net.runelite.api.InventoryID;
+import net.runelite.api.ItemID;
+import net.runelite.api.Varbits;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.config.Notification;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the thrall reminder against a direct reading of its rules over
+ * thousands of generated spellbook, gear and rune pouch combinations, both
+ * from a fresh login and through a long run of incremental events.
+ */
+public class ScenarioTest
+{
+	private static final int SCENARIOS = 2_000;
+	private static final long SEED = 0x7A11L;
+
+	// Config defaults.
+	private static final int MIN_FIRE = 10;
+	private static final int MIN_BLOOD = 5;
+	private static final int MIN_COSMIC = 1;
+
+	private static final int[] POUCH_RUNES = {
+		ItemID.FIRE_RUNE, ItemID.BLOOD_RUNE, ItemID.COSMIC_RUNE, ItemID.LAVA_RUNE
+	};
+
+	@Test
+	public void freshLoginMatchesRules()
+	{
+		Random random = new Random(SEED);
+		for (int i = 0; i < SCENARIOS; i++)
+		{
+			Scenario scenario = Scenario.random(random);
+			PluginHarness harness = new PluginHarness();
+			harness.client.setVarbit(Varbits.SPELLBOOK, scenario.spellbook.getVarbitValue());
+			harness.client.setContainer(InventoryID.INVENTORY, FakeItemContainer.create(
+				InventoryID.INVENTORY.getId(), scenario.inventory().build()));
+			harness.client.setContainer(InventoryID.EQUIPMENT, FakeItemContainer.create(
+				InventoryID.EQUIPMENT.getId(), scenario.equipment().build()));
+			scenario.pouch().applyTo(harness.client);
+
+			harness.setGameState(GameState.LOGGED_IN);
+
+			assertReminder(scenario, harness);
+		}
+	}
+
+	@Test
+	public void incrementalEventsMatchRules()
+	{
+		Random random = new Random(SEED);
+		PluginHarness harness = new PluginHarness();
+		for (int i = 0; i < SCENARIOS; i++)
+		{
+			Scenario scenario = Scenario.random(random);
+			harness.setSpellbook(scenario.spellbook);
+			harness.setRunePouch(scenario.pouch());
+			harness.setInventory(scenario.inventory());
+			harness.setEquipment(scenario.equipment());
+			harness.tick();
+
+			assertReminder(scenario, harness);
+		}
+	}
+
+	@Test
+	public void notifiesOnceWhenReminderAppears()
+	{
+		PluginHarness harness = new PluginHarness(new FakeConfig().set("notification", Notification.ON));
+		harness.setSpellbook(Spellbook.ARCEUUS);
+		harness.setInventory(ContainerBuilder.inventory()
+			.add(ItemID.FIRE_RUNE, 100)
+			.add(ItemID.BLOOD_RUNE, 100)
+			.add(ItemID.COSMIC_RUNE, 100));
+		harness.tick();
+		harness.tick();
+
+		assertEquals(1, harness.notifier.count());
+		assertEquals("Thrall Reminder: Missing Book of the Dead", harness.notifier.getMessages().get(0));
+
+		harness.setEquipment(ContainerBuilder.equipment()
+			.equip(EquipmentInventorySlot.SHIELD, ItemID.BOOK_OF_THE_DEAD));
+		harness.tick();
+
+		assertEquals(MissingCondition.NONE, harness.plugin.getCurrentMissingCondition());
+		assertEquals(1, harness.notifier.count());
+	}
+
+	@Test
+	public void reminderReturnsAfterRestart()
+	{
+		PluginHarness harness = new PluginHarness();
+		harness.setSpellbook(Spellbook.ARCEUUS);
+		harness.setInventory(ContainerBuilder.inventory()
+			.add(ItemID.FIRE_RUNE, 100)
+			.add(ItemID.BLOOD_RUNE, 100)
+			.add(ItemID.COSMIC_RUNE, 100));
+		harness.tick();
+		assertTrue(harness.plugin.shouldShowWarning());
+
+		// Nothing about the gear changes while the plugin is off.
+		harness.restart();
+
+		assertTrue(harness.plugin.shouldShowWarning());
+		assertEquals(MissingCondition.REQUIRED_ITEM, harness.plugin.getCurrentMissingCondition());
+	}
+
+	@Test
+	public void remindsOnlyInsideActiveRegion()
+	{
+		// Lumbridge (12850) is active; the region north of it (12851) is not.
+		WorldPoint inside = new WorldPoint(3222, 3218, 0);
+		WorldPoint outside = new WorldPoint(3222, 3270, 0);
+		PluginHarness harness = new PluginHarness(new FakeConfig()
+			.set("gateByActivity", true)
+			.set("activeRegions", "12850")
+			.set("recentCombatTicks", 0));
+		harness.client.setPlayerLocation(outside);
+		harness.setSpellbook(Spellbook.ARCEUUS);
+		harness.setInventory(ContainerBuilder.inventory()
+			.add(ItemID.FIRE_RUNE, 100)
+			.add(ItemID.BLOOD_RUNE, 100)
+			.add(ItemID.COSMIC_RUNE, 100));
+		harness.tick();
+		assertFalse(harness.plugin.shouldShowWarning());
+
+		harness.client.setPlayerLocation(inside);
+		harness.tick();
+		assertTrue(harness.plugin.shouldShowWarning());
+
+		harness.client.setPlayerLocation(outside);
+		harness.tick();
+		assertFalse(harness.plugin.shouldShowWarning());
+	}
+
+	@Test
+	public void runeMarginPreventsFlickerAtThreshold()
+	{
+		PluginHarness harness = new PluginHarness(new FakeConfig()
+			.set("notification", Notification.ON)
+			.set("runeMargin", 5));
+		harness.setSpellbook(Spellbook.ARCEUUS);
+		harness.setEquipment(withBook());
+
+		harness.setInventory(thrallRunes(MIN_FIRE - 1));
+		harness.tick();
+		assertEquals(MissingCondition.RUNES, harness.plugin.getCurrentMissingCondition());
+
+		// Hovering around the minimum keeps the reminder up until the margin is met.
+		for (int fire : new int[] {MIN_FIRE, MIN_FIRE - 1, MIN_FIRE + 2, MIN_FIRE + 4})
+		{
+			harness.setInventory(thrallRunes(fire));
+			harness.tick();
+			assertEquals("fire=" + fire, MissingCondition.RUNES, harness.plugin.getCurrentMissingCondition());
+		}
+
+		harness.setInventory(thrallRunes(MIN_FIRE + 5));
+		harness.tick();
+		assertEquals(MissingCondition.NONE, harness.plugin.getCurrentMissingCondition());
+
+		// Once cleared, it only returns below the minimum itself.
+		for (int fire : new int[] {MIN_FIRE + 4, MIN_FIRE})
+		{
+			harness.setInventory(thrallRunes(fire));
+			harness.tick();
+			assertEquals("fire=" + fire, MissingCondition.NONE, harness.plugin.getCurrentMissingCondition());
+		}
+		assertEquals(1, harness.notifier.count());
+
+		harness.setInventory(thrallRunes(MIN_FIRE - 1));
+		harness.tick();
+		assertEquals(MissingCondition.RUNES, harness.plugin.getCurrentMissingCondition());
+		assertEquals(2, harness.notifier.count());
+	}
+
+	@Test
+	public void dwellHoldsBackReminder()
+	{
+		PluginHarness harness = new PluginHarness(new FakeConfig()
+			.set("notification", Notification.ON)
+			.set("dwellTicks", 3));
+		harness.setSpellbook(Spellbook.ARCEUUS);
+		harness.setInventory(thrallRunes(100));
+		harness.setEquipment(withBook());
+		for (int i = 0; i <= 3; i++)
+		{
+			harness.tick();
+		}
+		assertFalse(harness.plugin.shouldShowWarning());
+
+		harness.setEquipment(ContainerBuilder.equipment());
+		for (int i = 0; i < 3; i++)
+		{
+			harness.tick();
+			assertFalse("tick " + i, harness.plugin.shouldShowWarning());
+		}
+		harness.tick();
+		assertTrue(harness.plugin.shouldShowWarning());
+		assertEquals(1, harness.notifier.count());
+
+		// A change shorter than the dwell time is ignored.
+		harness.setEquipment(withBook());
+		harness.tick();
+		harness.setEquipment(ContainerBuilder.equipment());
+		for (int i = 0; i < 4; i++)
+		{
+			harness.tick();
+			assertTrue("tick " + i, harness.plugin.shouldShowWarning());
+		}
+		assertEquals(1, harness.notifier.count());
+	}
+
+	@Test
+	public void cooldownSuppressesRepeatNotifications()
+	{
+		int cooldown = 10;
+		PluginHarness harness = new PluginHarness(new FakeConfig()
+			.set("notification", Notification.ON)
+			.set("notificationCooldownTicks", cooldown));
+		harness.setSpellbook(Spellbook.ARCEUUS);
+		harness.setInventory(thrallRunes(100));
+		harness.tick();
+		assertEquals(1, harness.notifier.count());
+
+		// The book reminder comes back within the cooldown, silently.
+		harness.setEquipment(withBook());
+		harness.tick();
+		harness.setEquipment(ContainerBuilder.equipment());
+		harness.tick();
+		assertTrue(harness.plugin.shouldShowWarning());
+		assertEquals(1, harness.notifier.count());
+
+		// The cooldown is per kind, so a rune reminder still notifies.
+		harness.setEquipment(withBook());
+		harness.tick();
+		harness.setInventory(thrallRunes(MIN_FIRE - 1));
+		harness.tick();
+		assertEquals(MissingCondition.RUNES, harness.plugin.getCurrentMissingCondition());
+		assertEquals(2, harness.notifier.count());
+
+		harness.setInventory(thrallRunes(100));
+		for (int i = 0; i < cooldown; i++)
+		{
+			harness.tick();
+		}
+		harness.setEquipment(ContainerBuilder.equipment());
+		harness.tick();
+		assertEquals(MissingCondition.REQUIRED_ITEM, harness.plugin.getCurrentMissingCondition());
+		assertEquals(3, harness.notifier.count());
+	}
+
+	@Test
+	public void remindsAboutFirstLoadoutInDeclarationOrder()
+	{
+		PluginHarness harness = new PluginHarness(new FakeConfig()
+			.set("remindDeathCharge", true)
+			.set("remindVengeance", true));
+		harness.setSpellbook(Spellbook.ARCEUUS);
+		// Thralls lack the book and Death Charge its runes; Vengeance misses
+		// both its spellbook and runes, so it has nothing to remind about.
+		harness.setInventory(thrallRunes(100));
+		harness.tick();
+		assertReminder(harness, Loadout.THRALLS, MissingCondition.REQUIRED_ITEM);
+
+		harness.setEquipment(withBook());
+		harness.tick();
+		assertReminder(harness, Loadout.DEATH_CHARGE, MissingCondition.RUNES);
+
+		// Vengeance is now only off its spellbook, but Death Charge comes first.
+		harness.setInventory(thrallRunes(100)
+			.add(ItemID.DEATH_RUNE, 100)
+			.add(ItemID.ASTRAL_RUNE, 100)
+			.add(ItemID.EARTH_RUNE, 100));
+		harness.tick();
+		assertReminder(harness, Loadout.DEATH_CHARGE, MissingCondition.RUNES);
+
+		harness.setInventory(thrallRunes(100)
+			.add(ItemID.DEATH_RUNE, 100)
+			.add(ItemID.ASTRAL_RUNE, 100)
+			.add(ItemID.EARTH_RUNE, 100)
+			.add(ItemID.SOUL_RUNE, 100));
+		harness.tick();
+		assertReminder(harness, Loadout.VENGEANCE, MissingCondition.SPELLBOOK);
+
+		harness.setConfig("remindVengeance", false);
+		harness.tick();
+		assertEquals(MissingCondition.NONE, harness.plugin.getCurrentMissingCondition());
+	}
+
+	@Test
+	public void remindsWhenFewCastsRemain()
+	{
+		// Greater thralls cost 5 fire runes a cast, so fire runes decide the casts left.
+		PluginHarness harness = new PluginHarness(new FakeConfig()
+			.set("notification", Notification.ON)
+			.set("lowCastsThreshold", 4));
+		harness.setSpellbook(Spellbook.ARCEUUS);
+		harness.setEquipment(withBook());
+
+		harness.setInventory(thrallRunes(20));
+		harness.tick();
+		assertEquals(4, harness.plugin.getCastsRemaining(Loadout.THRALLS));
+		assertEquals(MissingCondition.NONE, harness.plugin.getCurrentMissingCondition());
+
+		harness.setInventory(thrallRunes(19));
+		harness.tick();
+		assertEquals(3, harness.plugin.getCastsRemaining(Loadout.THRALLS));
+		assertReminder(harness, Loadout.THRALLS, MissingCondition.LOW_SUPPLY);
+		assertEquals("Thrall Reminder: Low on thrall runes", harness.notifier.getMessages().get(0));
+
+		harness.setInventory(thrallRunes(MIN_FIRE));
+		harness.tick();
+		assertReminder(harness, Loadout.THRALLS, MissingCondition.LOW_SUPPLY);
+
+		// Below the minimum the thralls are no longer ready at all.
+		harness.setInventory(thrallRunes(MIN_FIRE - 1));
+		harness.tick();
+		assertReminder(harness, Loadout.THRALLS, MissingCondition.RUNES);
+
+		harness.setConfig("lowCastsThreshold", 0);
+		harness.setInventory(thrallRunes(MIN_FIRE));
+		harness.tick();
+		assertEquals(MissingCondition.NONE, harness.plugin.getCurrentMissingCondition());
+	}
+
+	private static void assertReminder(PluginHarness harness, Loadout loadout, MissingCondition condition)
+	{
+		assertEquals(condition, harness.plugin.getCurrentMissingCondition());
+		assertEquals(loadout, harness.plugin.getCurrentLoadout());
+	}
+
+	private static ContainerBuilder thrallRunes(int fire)
+	{
+		return ContainerBuilder.inventory()
+			.add(ItemID.FIRE_RUNE, fire)
+			.add(ItemID.BLOOD_RUNE, 100)
+			.add(ItemID.COSMIC_RUNE, 100);
+	}
+
+	private static ContainerBuilder withBook()
+	{
+		return ContainerBuilder.equipment()
+			.equip(EquipmentInventorySlot.SHIELD, ItemID.BOOK_OF_THE_DEAD);
+	}
+
+	private static void assertReminder(Scenario scenario, PluginHarness harness)
+	{
+		MissingCondition expected = scenario.expectedCondition();
+		assertEquals(scenario.toString(), expected, harness.plugin.getCurrentMissingCondition());
+		assertEquals(scenario.toString(), expected != MissingCondition.NONE, harness.plugin.shouldShowWarning());
+	}
+
+	private static final class Scenario
+	{
+		private Spellbook spellbook;
+		private int bookSlot;
+		private boolean fireStaff;
+		private boolean runePouch;
+		private int fire;
+		private int lava;
+		private int blood;
+		private int cosmic;
+		private final int[] pouchRunes = new int[3];
+		private final int[] pouchAmounts = new int[3];
+
+		// 0 no book, 1 in the inventory, 2 equipped.
+		private static final int BOOK_SLOTS = 3;
+
+		static Scenario random(Random random)
+		{
+			Scenario scenario = new Scenario();
+			Spellbook[] spellbooks = Spellbook.values();
+			scenario.spellbook = spellbooks[random.nextInt(spellbooks.length)];
+			scenario.bookSlot = random.nextInt(BOOK_SLOTS);
+			scenario.fireStaff = random.nextInt(4) == 0;
+			scenario.runePouch = random.nextBoolean();
+			scenario.fire = random.nextInt(2 * MIN_FIRE);
+			scenario.lava = random.nextInt(MIN_FIRE);
+			scenario.blood = random.nextInt(2 * MIN_BLOOD);
+			scenario.cosmic = random.nextInt(2 * MIN_COSMIC + 1);
+			for (int slot = 0; slot < scenario.pouchRunes.length; slot++)
+			{
+				scenario.pouchRunes[slot] = POUCH_RUNES[random.nextInt(POUCH_RUNES.length)];
+				scenario.pouchAmounts[slot] = random.nextInt(2 * MIN_FIRE);
+			}
+			return scenario;
+		}
+
+		ContainerBuilder inventory()
+		{
+			ContainerBuilder inventory = ContainerBuilder.inventory()
+				.add(ItemID.FIRE_RUNE, fire)
+				.add(ItemID.LAVA_RUNE, lava)
+				.add(ItemID.BLOOD_RUNE, blood)
+				.add(ItemID.COSMIC_RUNE, cosmic);
+			if (runePouch)
+			{
+				inventory.add(ItemID.RUNE_POUCH);
+			}
+			if (bookSlot == 1)
+			{
+				inventory.add(ItemID.BOOK_OF_THE_DEAD);
+			}
+			return inventory;
+		}
+
+		ContainerBuilder equipment()
+		{
+			ContainerBuilder equipment = ContainerBuilder.equipment();
+			if (fireStaff)
+			{
+				equipment.equip(EquipmentInventorySlot.WEAPON, ItemID.FIRE_BATTLESTAFF);
+			}
+			if (bookSlot == 2)
+			{
+				equipment.equip(EquipmentInventorySlot.SHIELD, ItemID.BOOK_OF_THE_DEAD);
+			}
+			return equipment;
+		}
+
+		RunePouchBuilder pouch()
+		{
+			RunePouchBuilder pouch = RunePouchBuilder.pouch();
+			for (int slot = 0; slot < pouchRunes.length; slot++)
+			{
+				pouch.add(pouchRunes[slot], pouchAmounts[slot]);
+			}
+			return pouch;
+		}
+
+		MissingCondition expectedCondition()
+		{
+			int totalFire = fire + lava + (runePouch ? pouchTotal(ItemID.FIRE_RUNE) + pouchTotal(ItemID.LAVA_RUNE) : 0);
+			int totalBlood = blood + (runePouch ? pouchTotal(ItemID.BLOOD_RUNE) : 0);
+			int totalCosmic = cosmic + (runePouch ? pouchTotal(ItemID.COSMIC_RUNE) : 0);
+
+			boolean spellbookMissing = spellbook != Spellbook.ARCEUUS;
+			boolean bookMissing = bookSlot == 0;
+			boolean runesMissing = (!fireStaff && totalFire < MIN_FIRE)
+				|| totalBlood < MIN_BLOOD
+				|| totalCosmic < MIN_COSMIC;
+
+			int missing = (spellbookMissing ? 1 : 0) + (bookMissing ? 1 : 0) + (runesMissing ? 1 : 0);
+			if (missing != 1)
+			{
+				return MissingCondition.NONE;
+			}
+			if (bookMissing)
+			{
+				return MissingCondition.REQUIRED_ITEM;
+			}
+			return spellbookMissing ? MissingCondition.SPELLBOOK : MissingCondition.RUNES;
+		}
+
+		private int pouchTotal(int runeItemId)
+		{
+			int total = 0;
+			for (int slot = 0; slot < pouchRunes.length; slot++)
+			{
+				if (pouchRunes[slot] == runeItemId)
+				{
+					total += pouchAmounts[slot];
+				}
+			}
+			return total;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "Scenario{spellbook=" + spellbook + ", bookSlot=" + bookSlot + ", fireStaff=" + fireStaff
+				+ ", runePouch=" + runePouch + ", fire=" + fire + ", lava=" + lava + ", blood=" + blood
+				+ ", cosmic=" + cosmic + ", pouch=" + Arrays.toString(pouchRunes)
+				+ Arrays.toString(pouchAmounts) + "}";
+		}
+	}
+}
@@ -0,0 +1,308 @@
+package com.bookofthedeadnotifier;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Reports which Inventory Setups exports would trigger a reminder, using the
+ * plugin's own item classification, rune pouch handling and loadout rules.
+ *
+ * <p>Files are found lazily and audited on a fork-join pool, at most a few
+ * per worker in flight at once. Each file is read one setup at a time, so
+ * neither a large directory nor a large export is ever held in memory.
+ *
+ * <p>Arguments are {@code key=value} config overrides, such as
+ * {@code remindVengeance=true}, followed by files or directories.
+ */
+public class SetupAuditor
+{
+	private static final int FILES_IN_FLIGHT_PER_WORKER = 4;
+
+	// Inventory Setups stores the spellbook as our ordinal, or this for any.
+	private static final int ANY_SPELLBOOK = 4;
+
+	private static final int INVENTORY_ID = InventoryID.INVENTORY.getId();
+	private static final int EQUIPMENT_ID = InventoryID.EQUIPMENT.getId();
+
+	private final Gson gson = new Gson();
+	private final ConfigSnapshot settings;
+	private final LoadoutEvaluator evaluator;
+	private final ThreadLocal<Worker> workers;
+
+	private final Map<MissingCondition, LongAdder> verdicts = new EnumMap<>(MissingCondition.class);
+	private final LongAdder unreadable = new LongAdder();
+
+	/**
+	 * Per-thread scratch state, so setups are evaluated without sharing.
+	 */
+	private final class Worker
+	{
+		private final FakeClient client = new FakeClient();
+		private final ContainerSnapshot snapshot = new ContainerSnapshot();
+		private final int[] missing = new int[evaluator.size()];
+		private final int[] casts = new int[evaluator.size()];
+	}
+
+	SetupAuditor(FakeConfig config)
+	{
+		settings = ConfigSnapshot.from(config.getConfig());
+		evaluator = LoadoutEvaluator.compile(settings);
+		workers = ThreadLocal.withInitial(Worker::new);
+		for (MissingCondition condition : MissingCondition.values())
+		{
+			verdicts.put(condition, new LongAdder());
+		}
+	}
+
+	public static void main(String[] args) throws Exception
+	{
+		FakeConfig config = new FakeConfig();
+		int first = 0;
+		while (first < args.length && args[first].contains("="))
+		{
+			String[] override = args[first++].split("=", 2);
+			config.setString(override[0], override[1]);
+		}
+
+		if (first == args.length)
+		{
+			System.err.println("Usage: SetupAuditor [key=value ...] <setup file or directory> ...");
+			System.exit(2);
+		}
+
+		SetupAuditor auditor = new SetupAuditor(config);
+		for (int i = first; i < args.length; i++)
+		{
+			auditor.auditAll(Paths.get(args[i]));
+		}
+		auditor.printTotals();
+	}
+
+	/**
+	 * Audits a setup export, or every {@code .json} file below a directory.
+	 */
+	void auditAll(Path root) throws IOException, InterruptedException
+	{
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		int permits = pool.getParallelism() * FILES_IN_FLIGHT_PER_WORKER;
+		Semaphore inFlight = new Semaphore(permits);
+
+		try (Stream<Path> files = Files.walk(root))
+		{
+			Iterator<Path> iterator = files
+				.filter(Files::isRegularFile)
+				.filter(path -> path.equals(root) || path.toString().endsWith(".json"))
+				.iterator();
+			while (iterator.hasNext())
+			{
+				Path file = iterator.next();
+				inFlight.acquire();
+				pool.execute(() ->
+				{
+					try
+					{
+						auditFile(file);
+					}
+					finally
+					{
+						inFlight.release();
+					}
+				});
+			}
+		}
+
+		// Every permit is back once the last file is done.
+		inFlight.acquire(permits);
+		inFlight.release(permits);
+	}
+
+	private void auditFile(Path file)
+	{
+		try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+			JsonReader reader = new JsonReader(in))
+		{
+			if (reader.peek() == JsonToken.BEGIN_ARRAY)
+			{
+				reader.beginArray();
+				for (int index = 0; reader.hasNext(); index++)
+				{
+					auditSetup(file + "#" + index, gson.fromJson(reader, JsonElement.class));
+				}
+				reader.endArray();
+			}
+			else
+			{
+				auditSetup(file.toString(), gson.fromJson(reader, JsonElement.class));
+			}
+		}
+		catch (IOException | RuntimeException e)
+		{
+			unreadable.increment();
+			print("UNREADABLE  " + file + ": " + e.getMessage());
+		}
+	}
+
+	private void auditSetup(String source, JsonElement element)
+	{
+		if (element == null || !element.isJsonObject())
+		{
+			unreadable.increment();
+			print("UNREADABLE  " + source + ": not a setup");
+			return;
+		}
+
+		JsonObject setup = element.getAsJsonObject();
+		// Exports made with a layout wrap the setup in another object.
+		if (setup.has("setup") && setup.get("setup").isJsonObject())
+		{
+			setup = setup.getAsJsonObject("setup");
+		}
+
+		String name = setup.has("name") ? setup.get("name").getAsString() + " (" + source + ")" : source;
+		String reminder = evaluate(setup);
+		print(reminder == null ? "OK          " + name : "REMINDER    " + name + ": " + reminder);
+	}
+
+	/**
+	 * @return the reminder the plugin would show for the setup, or null
+	 */
+	private String evaluate(JsonObject setup)
+	{
+		Worker worker = workers.get();
+		ContainerSnapshot snapshot = worker.snapshot;
+		snapshot.resetContainers();
+		snapshot.updateInventory(FakeItemContainer.create(INVENTORY_ID, readItems(setup, "inv")));
+		snapshot.updateEquipment(FakeItemContainer.create(EQUIPMENT_ID, readItems(setup, "eq")));
+		readRunePouch(setup).applyTo(worker.client);
+		snapshot.runePouch.load(worker.client.getClient());
+
+		int spellbook = setup.has("spellBook") ? setup.get("spellBook").getAsInt() : ANY_SPELLBOOK;
+		evaluator.countCasts(snapshot, worker.casts);
+		evaluator.evaluate(snapshot, spellbook, -1, worker.missing);
+
+		int lowCastsThreshold = settings.getLowCastsThreshold();
+		for (int i = 0; i < evaluator.size(); i++)
+		{
+			int missing = worker.missing[i];
+			if (spellbook == ANY_SPELLBOOK)
+			{
+				// The setup does not pin a spellbook, so it cannot be wrong.
+				missing &= ~MissingCondition.SPELLBOOK.mask();
+			}
+
+			MissingCondition condition = evaluator.getReminder(i, missing, worker.casts[i], lowCastsThreshold);
+			if (condition != MissingCondition.NONE && settings.isNotifyEnabled(condition))
+			{
+				verdicts.get(condition).increment();
+				Loadout loadout = evaluator.getLoadout(i);
+				return loadout.getName() + " - " + loadout.getLongText(condition);
+			}
+		}
+
+		verdicts.get(MissingCondition.NONE).increment();
+		return null;
+	}
+
+	private static Item[] readItems(JsonObject setup, String key)
+	{
+		if (!setup.has(key) || !setup.get(key).isJsonArray())
+		{
+			return new Item[0];
+		}
+
+		JsonArray slots = setup.getAsJsonArray(key);
+		Item[] items = new Item[slots.size()];
+		for (int slot = 0; slot < items.length; slot++)
+		{
+			JsonElement element = slots.get(slot);
+			items[slot] = element.isJsonObject() ? readItem(element.getAsJsonObject()) : FakeItemContainer.empty();
+		}
+		return items;
+	}
+
+	private static Item readItem(JsonObject item)
+	{
+		int id = item.has("id") ? item.get("id").getAsInt() : -1;
+		int quantity = 1;
+		// Newer exports shorten the quantity key.
+		if (item.has("q"))
+		{
+			quantity = item.get("q").getAsInt();
+		}
+		else if (item.has("quantity"))
+		{
+			quantity = item.get("quantity").getAsInt();
+		}
+		return new Item(id, quantity);
+	}
+
+	private static RunePouchBuilder readRunePouch(JsonObject setup)
+	{
+		RunePouchBuilder pouch = RunePouchBuilder.pouch();
+		int slots = 0;
+		for (Item item : readItems(setup, "rp"))
+		{
+			if (slots < RunePouchState.SLOTS && FakeEnumComposition.runePouchKey(item.getId()) != 0)
+			{
+				pouch.add(item.getId(), item.getQuantity());
+				slots++;
+			}
+		}
+		return pouch;
+	}
+
+	private static void print(String line)
+	{
+		synchronized (System.out)
+		{
+			System.out.println(line);
+		}
+	}
+
+	void printTotals()
+	{
+		long reminders = 0;
+		for (MissingCondition condition : MissingCondition.values())
+		{
+			if (condition != MissingCondition.NONE)
+			{
+				reminders += verdicts.get(condition).sum();
+			}
+		}
+
+		long ok = verdicts.get(MissingCondition.NONE).sum();
+		System.out.println();
+		System.out.println("Audited " + (ok + reminders) + " setups");
+		System.out.println("  ok:          " + ok);
+		System.out.println("  reminders:   " + reminders);
+		for (MissingCondition condition : MissingCondition.values())
+		{
+			long count = verdicts.get(condition).sum();
+			if (condition != MissingCondition.NONE && count > 0)
+			{
+				System.out.println("    " + condition + ": " + count);
+			}
+		}
+		System.out.println("  unreadable:  " + unreadable.sum());
+	}
+}
@@ -0,0 +1,91 @@
+package com.bookofthedeadnotifier;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Parses custom reminder texts and checks when the render cache builds a
+ * new string.
+ */
+public class TextTemplateTest
+{
+	@Test
+	public void keepsUnknownPlaceholdersAsWritten()
+	{
+		TextTemplate template = TextTemplate.compile("{foo} {fire");
+
+		assertTrue(template.isConstant());
+		assertEquals("{foo} {fire", render(template, values(10, 5, 1, 3)));
+	}
+
+	@Test
+	public void matchesPlaceholdersInAnyCase()
+	{
+		TextTemplate template = TextTemplate.compile("{Missing}: {FIRE} fire, {cAsTs} casts");
+
+		assertTrue(template.uses(TextTemplate.Placeholder.MISSING));
+		assertTrue(template.uses(TextTemplate.Placeholder.FIRE));
+		assertTrue(template.uses(TextTemplate.Placeholder.CASTS));
+		assertFalse(template.uses(TextTemplate.Placeholder.BLOOD));
+		assertEquals("Missing Book of the Dead: 10 fire, 3 casts", render(template, values(10, 5, 1, 3)));
+	}
+
+	@Test
+	public void rendersUnlimitedCasts()
+	{
+		TextTemplate template = TextTemplate.compile("{casts} casts");
+
+		assertEquals("unlimited casts", render(template, values(0, 0, 0, Integer.MAX_VALUE)));
+	}
+
+	@Test
+	public void rebuildsOnlyWhenReferencedValuesChange()
+	{
+		TextTemplate template = TextTemplate.compile("{fire} fire");
+		TextTemplate.Cache cache = new TextTemplate.Cache();
+
+		String first = cache.render(template, Loadout.THRALLS, MissingCondition.RUNES, values(10, 5, 1, 3));
+		assertSame(first, cache.render(template, Loadout.THRALLS, MissingCondition.RUNES, values(10, 5, 1, 3)));
+		// Neither the other values nor the reminder are part of this text.
+		assertSame(first, cache.render(template, Loadout.THRALLS, MissingCondition.RUNES, values(10, 4, 0, 2)));
+		assertSame(first, cache.render(template, Loadout.VENGEANCE, MissingCondition.SPELLBOOK, values(10, 4, 0, 2)));
+
+		String second = cache.render(template, Loadout.THRALLS, MissingCondition.RUNES, values(9, 4, 0, 2));
+		assertNotSame(first, second);
+		assertEquals("9 fire", second);
+	}
+
+	@Test
+	public void rebuildsWhenReferencedReminderChanges()
+	{
+		TextTemplate template = TextTemplate.compile("{loadout}: {missing}");
+		TextTemplate.Cache cache = new TextTemplate.Cache();
+
+		assertEquals("Thrall: Missing Book of the Dead",
+			cache.render(template, Loadout.THRALLS, MissingCondition.REQUIRED_ITEM, values(0, 0, 0, 0)));
+		assertEquals("Thrall: Not on Arceuus spellbook",
+			cache.render(template, Loadout.THRALLS, MissingCondition.SPELLBOOK, values(0, 0, 0, 0)));
+		assertEquals("Vengeance: Not on Lunar spellbook",
+			cache.render(template, Loadout.VENGEANCE, MissingCondition.SPELLBOOK, values(0, 0, 0, 0)));
+	}
+
+	private static String render(TextTemplate template, int[] values)
+	{
+		return new TextTemplate.Cache().render(template, Loadout.THRALLS, MissingCondition.REQUIRED_ITEM, values);
+	}
+
+	private static int[] values(int fire, int blood, int cosmic, int casts)
+	{
+		int[] values = new int[TextTemplate.Placeholder.COUNT];
+		values[TextTemplate.Placeholder.FIRE.ordinal()] = fire;
+		values[TextTemplate.Placeholder.BLOOD.ordinal()] = blood;
+		values[TextTemplate.Placeholder.COSMIC.ordinal()] = cosmic;
+		values[TextTemplate.Placeholder.CASTS.ordinal()] = casts;
+		return values;
+	}
+}